@@ -0,0 +1,196 @@
+/**
+ * 批量元数据操作（mkdir / delete / rename）。
+ *
+ * createDirectory、deletePath、renamePath 每次都先 exists() 再执行真正的操作，至少两次 NameNode 往返。
+ * 这里去掉多余的存在性检查，直接根据操作本身的返回值和异常判断结果：
+ *   mkdir  —— mkdirs 对已存在的目录同样返回 true；
+ *   delete —— 路径不存在时返回 false，记为 NOT_FOUND；
+ *   rename —— 与 renamePath 语义相同（目标是已存在的目录时移入该目录），只在 rename 返回 false 时
+ *             才检查源和目标是否存在；目标父目录不存在时补一次 mkdirs 后重试（与 renamePath 一样自动创建父目录）。
+ * 整个批次在一个有界线程池上并发执行，返回与输入顺序一致的逐条结果。
+ * 批次内的操作彼此独立、并发执行，不保证先后顺序；有依赖关系的操作请拆成多个批次。
+ */
+
+import org.apache.hadoop.fs.FileAlreadyExistsException;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+
+import java.io.Closeable;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class HDFSBatchOps implements Closeable {
+
+    public enum Type {
+        MKDIR, DELETE, RENAME
+    }
+
+    public enum Status {
+        OK, NOT_FOUND, ALREADY_EXISTS, FAILED
+    }
+
+    /**
+     * 一个待执行的元数据操作
+     */
+    public static class Op {
+        private final Type type;
+        private final Path path;
+        private final Path target;
+        private final boolean recursive;
+
+        private Op(Type type, Path path, Path target, boolean recursive) {
+            this.type = type;
+            this.path = path;
+            this.target = target;
+            this.recursive = recursive;
+        }
+
+        public static Op mkdir(String dirPath) {
+            return new Op(Type.MKDIR, new Path(dirPath), null, false);
+        }
+
+        public static Op delete(String path, boolean recursive) {
+            return new Op(Type.DELETE, new Path(path), null, recursive);
+        }
+
+        public static Op rename(String srcPath, String dstPath) {
+            return new Op(Type.RENAME, new Path(srcPath), new Path(dstPath), false);
+        }
+
+        public Type getType() {
+            return type;
+        }
+
+        @Override
+        public String toString() {
+            return type == Type.RENAME ? type + " " + path + " -> " + target : type + " " + path;
+        }
+    }
+
+    /**
+     * 单个操作的执行结果
+     */
+    public static class OpResult {
+        private final Op op;
+        private final Status status;
+        private final String message;
+        private final long nanos;
+
+        OpResult(Op op, Status status, String message, long nanos) {
+            this.op = op;
+            this.status = status;
+            this.message = message;
+            this.nanos = nanos;
+        }
+
+        public Op getOp() {
+            return op;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public boolean isSuccess() {
+            return status == Status.OK;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public double getMillis() {
+            return nanos / 1e6;
+        }
+
+        @Override
+        public String toString() {
+            return op + " : " + status + (message == null ? "" : " (" + message + ")");
+        }
+    }
+
+    private final FileSystem fs;
+    private final ExecutorService pool;
+
+    public HDFSBatchOps(FileSystem fs, int threads) {
+        this.fs = fs;
+        this.pool = Executors.newFixedThreadPool(threads);
+    }
+
+    /**
+     * 并发执行一批操作，结果顺序与输入一致
+     */
+    public List<OpResult> execute(List<Op> ops) throws IOException {
+        List<Future<OpResult>> futures = new ArrayList<>(ops.size());
+        for (Op op : ops) {
+            futures.add(pool.submit(() -> run(op)));
+        }
+        List<OpResult> results = new ArrayList<>(ops.size());
+        try {
+            for (Future<OpResult> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("<MyHDFS> 批量操作被中断", e);
+        } catch (ExecutionException e) {
+            throw new IOException("<MyHDFS> 批量操作出错", e.getCause());
+        }
+        return results;
+    }
+
+    private OpResult run(Op op) {
+        long start = System.nanoTime();
+        Status status;
+        String message = null;
+        try {
+            switch (op.type) {
+                case MKDIR:
+                    status = fs.mkdirs(op.path) ? Status.OK : Status.FAILED;
+                    break;
+                case DELETE:
+                    status = fs.delete(op.path, op.recursive) ? Status.OK : Status.NOT_FOUND;
+                    break;
+                default:
+                    status = rename(op.path, op.target);
+            }
+        } catch (FileNotFoundException e) {
+            status = Status.NOT_FOUND;
+            message = e.getMessage();
+        } catch (FileAlreadyExistsException e) {
+            status = Status.ALREADY_EXISTS;
+            message = e.getMessage();
+        } catch (IOException e) {
+            status = Status.FAILED;
+            message = e.getMessage();
+        }
+        return new OpResult(op, status, message, System.nanoTime() - start);
+    }
+
+    private Status rename(Path src, Path dst) throws IOException {
+        // 与 renamePath 一致使用 rename(src, dst)：目标是已存在的目录时把源移入该目录。
+        // 成功时只有一次 NameNode 往返，返回 false 时才额外检查原因
+        if (fs.rename(src, dst)) {
+            return Status.OK;
+        }
+        if (!fs.exists(src)) {
+            return Status.NOT_FOUND;
+        }
+        if (fs.exists(dst)) {
+            return Status.ALREADY_EXISTS;
+        }
+        fs.mkdirs(dst.getParent());
+        return fs.rename(src, dst) ? Status.OK : Status.FAILED;
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+}
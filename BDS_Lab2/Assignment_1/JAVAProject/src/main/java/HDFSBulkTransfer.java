@@ -0,0 +1,421 @@
+/**
+ * 批量、并行的上传/下载引擎，建立在 uploadFileToHDFS / downloadFileFromHDFS 的语义之上：
+ *   上传 —— 目标已存在时覆盖；
+ *   下载 —— 本地已有同名文件时自动改名为 download_<时间戳>_<文件名>。
+ *
+ * 源可以是目录（递归，保留相对路径）或通配符（如 /data/*.csv，匹配到的文件直接放在目标目录下，匹配到的目录保留目录名）。
+ * 所有传输在一个固定大小的线程池上执行，并发数可配置。
+ * 大文件（不小于 splitSize）按字节区间切分并行传输：
+ *   下载 —— 每个区间用定位读（pread）读取 HDFS，再按偏移写入预先分配好长度的本地文件；
+ *   上传 —— HDFS 不支持多线程写同一个文件，因此在 HDFS 上把各区间并行写成分片文件，
+ *           再用 concat 合并并改名为目标文件；其他文件系统退回到单线程顺序写。
+ */
+
+import org.apache.hadoop.fs.*;
+import org.apache.hadoop.hdfs.DistributedFileSystem;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class HDFSBulkTransfer implements Closeable {
+
+    /**
+     * 单个文件的传输结果
+     */
+    public static class FileResult {
+        private final String source;
+        private final String target;
+        private final long bytes;
+        private final AtomicLong startNanos = new AtomicLong();
+        private volatile long endNanos;
+        private volatile Throwable error;
+
+        FileResult(String source, String target, long bytes) {
+            this.source = source;
+            this.target = target;
+            this.bytes = bytes;
+        }
+
+        void started() {
+            startNanos.compareAndSet(0, System.nanoTime());
+        }
+
+        void finished(Throwable t) {
+            if (t != null && error == null) {
+                error = t;
+            }
+            endNanos = System.nanoTime();
+        }
+
+        public String getSource() {
+            return source;
+        }
+
+        public String getTarget() {
+            return target;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public boolean isSuccess() {
+            return error == null;
+        }
+
+        public Throwable getError() {
+            return error;
+        }
+
+        public double getMillis() {
+            return (endNanos - startNanos.get()) / 1e6;
+        }
+
+        public double getMBps() {
+            return mbps(bytes, endNanos - startNanos.get());
+        }
+
+        @Override
+        public String toString() {
+            if (!isSuccess()) {
+                return source + " -> " + target + " 失败: " + error.getMessage();
+            }
+            return String.format("%s -> %s (%d 字节, %.1f ms, %.1f MB/s)", source, target, bytes, getMillis(), getMBps());
+        }
+    }
+
+    /**
+     * 一次批量传输的汇总报告
+     */
+    public static class Report {
+        private final List<FileResult> files;
+        private final long elapsedNanos;
+
+        Report(List<FileResult> files, long elapsedNanos) {
+            this.files = files;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public List<FileResult> getFiles() {
+            return files;
+        }
+
+        public long getTotalBytes() {
+            long total = 0;
+            for (FileResult f : files) {
+                if (f.isSuccess()) {
+                    total += f.getBytes();
+                }
+            }
+            return total;
+        }
+
+        public long getFailureCount() {
+            return files.stream().filter(f -> !f.isSuccess()).count();
+        }
+
+        public double getMBps() {
+            return mbps(getTotalBytes(), elapsedNanos);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("文件数=%d, 失败=%d, 总大小=%d 字节, 耗时=%.1f ms, 吞吐=%.1f MB/s",
+                    files.size(), getFailureCount(), getTotalBytes(), elapsedNanos / 1e6, getMBps());
+        }
+    }
+
+    private static double mbps(long bytes, long nanos) {
+        return nanos <= 0 ? 0 : (bytes / 1048576.0) / (nanos / 1e9);
+    }
+
+    private final FileSystem fs;
+    private final LocalFileSystem localFs;
+    private final long splitSize;
+    private final int bufferSize;
+    private final ExecutorService pool;
+
+    public HDFSBulkTransfer(FileSystem fs, int concurrency, long splitSize, int bufferSize) throws IOException {
+        this.fs = fs;
+        this.localFs = FileSystem.getLocal(fs.getConf());
+        this.splitSize = splitSize;
+        this.bufferSize = bufferSize;
+        this.pool = Executors.newFixedThreadPool(concurrency);
+    }
+
+    /**
+     * 批量上传：本地目录或通配符 -> HDFS 目录（同名覆盖）
+     */
+    public Report upload(String localSource, String remoteDir) throws IOException {
+        long start = System.nanoTime();
+        List<FileResult> results = new ArrayList<>();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        Path remoteBase = new Path(remoteDir);
+        Set<Path> createdDirs = new HashSet<>();
+
+        for (Map.Entry<FileStatus, String> e : expand(localFs, localSource).entrySet()) {
+            FileStatus src = e.getKey();
+            Path dst = new Path(remoteBase, e.getValue());
+            FileResult result = new FileResult(src.getPath().toString(), dst.toString(), src.getLen());
+            results.add(result);
+            if (createdDirs.add(dst.getParent())) {
+                fs.mkdirs(dst.getParent());
+            }
+
+            if (src.getLen() >= splitSize && fs instanceof DistributedFileSystem) {
+                futures.add(uploadInParts(new File(src.getPath().toUri()), dst, result));
+            } else {
+                futures.add(submit(result, () -> uploadWhole(new File(src.getPath().toUri()), dst)));
+            }
+        }
+        await(futures);
+        return new Report(results, System.nanoTime() - start);
+    }
+
+    /**
+     * 批量下载：HDFS 目录或通配符 -> 本地目录（本地同名时自动改名）
+     */
+    public Report download(String remoteSource, String localDir) throws IOException {
+        long start = System.nanoTime();
+        List<FileResult> results = new ArrayList<>();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        File localBase = new File(localDir);
+        Set<File> reserved = new HashSet<>();
+        Set<File> createdDirs = new HashSet<>();
+
+        for (Map.Entry<FileStatus, String> e : expand(fs, remoteSource).entrySet()) {
+            FileStatus src = e.getKey();
+            File dst = resolveLocalTarget(new File(localBase, e.getValue()), reserved);
+            FileResult result = new FileResult(src.getPath().toString(), dst.getPath(), src.getLen());
+            results.add(result);
+            if (createdDirs.add(dst.getParentFile())) {
+                dst.getParentFile().mkdirs();
+            }
+
+            if (src.getLen() >= splitSize) {
+                futures.add(downloadInRanges(src, dst, result));
+            } else {
+                futures.add(submit(result, () -> downloadWhole(src, dst)));
+            }
+        }
+        await(futures);
+        return new Report(results, System.nanoTime() - start);
+    }
+
+    /**
+     * 展开源：目录递归列出全部文件（值为相对路径），通配符匹配到的文件平铺（值为文件名）
+     */
+    private static Map<FileStatus, String> expand(FileSystem fileSystem, String source) throws IOException {
+        Map<FileStatus, String> files = new LinkedHashMap<>();
+        Path path = new Path(source);
+        FileStatus[] matches = fileSystem.globStatus(path);
+        if (matches == null || matches.length == 0) {
+            throw new FileNotFoundException("<MyHDFS> 源路径不存在: " + source);
+        }
+        boolean isGlob = source.matches(".*[*?\\[{].*");
+        for (FileStatus match : matches) {
+            if (match.isFile()) {
+                files.put(match, match.getPath().getName());
+                continue;
+            }
+            // 通配符匹配到的目录保留目录名本身，直接指定的目录只取其内部的相对路径
+            Path baseDir = isGlob ? match.getPath().getParent() : match.getPath();
+            String base = baseDir.toUri().getPath();
+            RemoteIterator<LocatedFileStatus> it = fileSystem.listFiles(match.getPath(), true);
+            while (it.hasNext()) {
+                LocatedFileStatus status = it.next();
+                String relative = status.getPath().toUri().getPath().substring(base.endsWith("/") ? base.length() : base.length() + 1);
+                files.put(status, relative);
+            }
+        }
+        return files;
+    }
+
+    /**
+     * 与 downloadFileFromHDFS 一致：本地已有同名文件时改名为 download_<时间戳>_<文件名>，
+     * 同一批次内的重名再追加序号
+     */
+    private static File resolveLocalTarget(File target, Set<File> reserved) {
+        File candidate = target;
+        if (candidate.exists() || reserved.contains(candidate)) {
+            String renamed = "download_" + System.currentTimeMillis() + "_" + target.getName();
+            candidate = new File(target.getParentFile(), renamed);
+            for (int i = 1; candidate.exists() || reserved.contains(candidate); i++) {
+                candidate = new File(target.getParentFile(), renamed + "." + i);
+            }
+        }
+        reserved.add(candidate);
+        return candidate;
+    }
+
+    private interface IOTask {
+        void run() throws IOException;
+    }
+
+    private CompletableFuture<Void> submit(FileResult result, IOTask task) {
+        return CompletableFuture.runAsync(() -> {
+            result.started();
+            try {
+                task.run();
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, pool).whenComplete((v, t) -> result.finished(unwrap(t)));
+    }
+
+    /**
+     * 大文件下载：预分配本地文件长度，各区间并行 pread + 定位写
+     */
+    private CompletableFuture<Void> downloadInRanges(FileStatus src, File dst, FileResult result) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(dst, "rw")) {
+            raf.setLength(src.getLen());
+        } catch (IOException e) {
+            dst.delete();
+            throw e;
+        }
+        List<CompletableFuture<Void>> ranges = new ArrayList<>();
+        for (long offset = 0; offset < src.getLen(); offset += splitSize) {
+            long begin = offset;
+            long length = Math.min(splitSize, src.getLen() - offset);
+            ranges.add(rangeTask(result, () -> downloadRange(src.getPath(), dst, begin, length)));
+        }
+        return CompletableFuture.allOf(ranges.toArray(new CompletableFuture<?>[0]))
+                .whenComplete((v, t) -> {
+                    // 任一区间失败时删除只写了一部分的本地文件，不留下长度正确但内容不完整的文件
+                    if (t != null) {
+                        dst.delete();
+                    }
+                    result.finished(unwrap(t));
+                });
+    }
+
+    /**
+     * 大文件上传（仅 HDFS）：各区间并行写成分片文件，全部完成后 concat 到第一个分片并改名为目标文件
+     */
+    private CompletableFuture<Void> uploadInParts(File src, Path dst, FileResult result) {
+        List<Path> parts = new ArrayList<>();
+        List<CompletableFuture<Void>> ranges = new ArrayList<>();
+        long len = src.length();
+        // concat 要求除最后一个分片外都是整块，分片大小按块大小向上取整
+        long blockSize = fs.getDefaultBlockSize(dst);
+        long partSize = (splitSize + blockSize - 1) / blockSize * blockSize;
+        for (long offset = 0; offset < len; offset += partSize) {
+            long begin = offset;
+            long length = Math.min(partSize, len - offset);
+            Path part = new Path(dst.getParent(), "." + dst.getName() + "._PART_" + parts.size());
+            parts.add(part);
+            ranges.add(rangeTask(result, () -> uploadRange(src, part, begin, length)));
+        }
+        return CompletableFuture.allOf(ranges.toArray(new CompletableFuture<?>[0]))
+                .thenRunAsync(() -> {
+                    try {
+                        DistributedFileSystem dfs = (DistributedFileSystem) fs;
+                        Path first = parts.get(0);
+                        if (parts.size() > 1) {
+                            dfs.concat(first, parts.subList(1, parts.size()).toArray(new Path[0]));
+                        }
+                        dfs.rename(first, dst, Options.Rename.OVERWRITE);
+                    } catch (IOException e) {
+                        throw new CompletionException(e);
+                    }
+                }, pool)
+                .whenComplete((v, t) -> {
+                    if (t != null) {
+                        for (Path part : parts) {
+                            try {
+                                fs.delete(part, false);
+                            } catch (IOException ignored) {
+                                // 清理失败不影响错误上报
+                            }
+                        }
+                    }
+                    result.finished(unwrap(t));
+                });
+    }
+
+    private CompletableFuture<Void> rangeTask(FileResult result, IOTask task) {
+        return CompletableFuture.runAsync(() -> {
+            result.started();
+            try {
+                task.run();
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, pool);
+    }
+
+    private void downloadWhole(FileStatus src, File dst) throws IOException {
+        try {
+            downloadRange(src.getPath(), dst, 0, src.getLen());
+        } catch (IOException e) {
+            dst.delete();
+            throw e;
+        }
+    }
+
+    private void downloadRange(Path src, File dst, long offset, long length) throws IOException {
+        byte[] buffer = new byte[(int) Math.min(bufferSize, Math.max(length, 1))];
+        try (FSDataInputStream in = fs.open(src, bufferSize);
+             FileChannel out = FileChannel.open(dst.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            long position = offset;
+            long end = offset + length;
+            while (position < end) {
+                int n = (int) Math.min(buffer.length, end - position);
+                in.readFully(position, buffer, 0, n);
+                ByteBuffer bb = ByteBuffer.wrap(buffer, 0, n);
+                while (bb.hasRemaining()) {
+                    out.write(bb, position + bb.position());
+                }
+                position += n;
+            }
+        }
+    }
+
+    private void uploadWhole(File src, Path dst) throws IOException {
+        uploadRange(src, dst, 0, src.length());
+    }
+
+    private void uploadRange(File src, Path dst, long offset, long length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(bufferSize, Math.max(length, 1)));
+        try (FileChannel in = FileChannel.open(src.toPath(), StandardOpenOption.READ);
+             FSDataOutputStream out = fs.create(dst, true, bufferSize)) {
+            long position = offset;
+            long end = offset + length;
+            while (position < end) {
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), end - position));
+                int n = in.read(buffer, position);
+                if (n < 0) {
+                    throw new EOFException("<MyHDFS> 本地文件在传输过程中被截断: " + src);
+                }
+                out.write(buffer.array(), 0, n);
+                position += n;
+            }
+        }
+    }
+
+    private static void await(List<CompletableFuture<Void>> futures) {
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            // 单个文件的失败已记录在各自的 FileResult 中
+        }
+    }
+
+    private static Throwable unwrap(Throwable t) {
+        while (t instanceof CompletionException && t.getCause() != null) {
+            t = t.getCause();
+        }
+        return t;
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+}
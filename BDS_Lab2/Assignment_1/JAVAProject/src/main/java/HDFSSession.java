@@ -0,0 +1,534 @@
+/**
+ * HDFS 会话：持有一个长生命周期的 FileSystem，供所有操作复用。
+ *
+ * 原先 MyHDFS 的每个静态方法都会 FileSystem.get(config) 后再 fs.close()，
+ * 关闭的是 JVM 级缓存的实例，下一次调用只能重新建立到 NameNode 的 RPC 客户端。
+ * 这里改为：一个会话只创建一次 FileSystem（FileSystem.newInstance，不与缓存共享），
+ * 所有操作作为实例方法复用它，直到显式 close()。
+ *
+ * FileSystem 本身是线程安全的，会话不保存其他可变状态，因此可以在多个线程间共享。
+ */
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.*;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class HDFSSession implements Closeable {
+
+    // 按 Configuration 实例共享的会话，供 MyHDFS 的静态方法使用
+    private static final Map<Configuration, HDFSSession> SHARED = new ConcurrentHashMap<>();
+
+    // 流式读取时使用的缓冲区大小（字节）
+    public static final String READ_BUFFER_SIZE_KEY = "myhdfs.read.buffer.size";
+    public static final int READ_BUFFER_SIZE_DEFAULT = 1024 * 1024;
+
+    // readFileContent 返回 String 时允许的最大文件大小（字节）
+    public static final String READ_STRING_MAX_BYTES_KEY = "myhdfs.read.string.max.bytes";
+    public static final long READ_STRING_MAX_BYTES_DEFAULT = 64L * 1024 * 1024;
+
+    // 并行递归列目录时的线程数
+    public static final String LIST_THREADS_KEY = "myhdfs.list.threads";
+    public static final int LIST_THREADS_DEFAULT = 16;
+
+    // 批量上传/下载的并发数，以及大文件按区间切分的阈值（字节）
+    public static final String TRANSFER_THREADS_KEY = "myhdfs.transfer.threads";
+    public static final int TRANSFER_THREADS_DEFAULT = 8;
+    public static final String TRANSFER_SPLIT_SIZE_KEY = "myhdfs.transfer.split.size";
+    public static final long TRANSFER_SPLIT_SIZE_DEFAULT = 128L * 1024 * 1024;
+
+    // 批量元数据操作的并发数
+    public static final String BATCH_THREADS_KEY = "myhdfs.batch.threads";
+    public static final int BATCH_THREADS_DEFAULT = 16;
+
+    // fs.defaultFS 为 file:// 时，读取和下载是否绕过 Hadoop 流，直接走 FileChannel 零拷贝
+    public static final String LOCAL_FAST_PATH_KEY = "myhdfs.local.fastpath";
+    public static final boolean LOCAL_FAST_PATH_DEFAULT = true;
+
+    // 为 true 时不输出上传、下载、创建、删除等操作的提示信息（性能测试等批量调用时使用）
+    public static final String QUIET_KEY = "myhdfs.quiet";
+    public static final boolean QUIET_DEFAULT = false;
+
+    private final Configuration config;
+    private final FileSystem fs;
+    private final boolean localFastPath;
+    private final boolean quiet;
+
+    public HDFSSession(Configuration config) throws IOException {
+        this.config = config;
+        this.fs = FileSystem.newInstance(config);
+        this.localFastPath = config.getBoolean(LOCAL_FAST_PATH_KEY, LOCAL_FAST_PATH_DEFAULT)
+                && (fs instanceof LocalFileSystem || fs instanceof RawLocalFileSystem);
+        this.quiet = config.getBoolean(QUIET_KEY, QUIET_DEFAULT);
+    }
+
+    /**
+     * 获取与该 Configuration 绑定的共享会话（不存在则创建），JVM 退出时统一关闭
+     */
+    public static HDFSSession shared(Configuration config) throws IOException {
+        HDFSSession session = SHARED.get(config);
+        if (session != null) {
+            return session;
+        }
+        synchronized (SHARED) {
+            session = SHARED.get(config);
+            if (session == null) {
+                session = new HDFSSession(config);
+                SHARED.put(config, session);
+                if (SHARED.size() == 1) {
+                    Runtime.getRuntime().addShutdownHook(new Thread(HDFSSession::closeShared));
+                }
+            }
+            return session;
+        }
+    }
+
+    /**
+     * 关闭所有共享会话
+     */
+    public static void closeShared() {
+        synchronized (SHARED) {
+            for (HDFSSession session : SHARED.values()) {
+                try {
+                    session.close();
+                } catch (IOException e) {
+                    System.out.println("<MyHDFS> 关闭会话出错: " + e.getMessage());
+                }
+            }
+            SHARED.clear();
+        }
+    }
+
+    // 操作的提示信息，myhdfs.quiet 为 true 时不输出
+    private void info(String message) {
+        if (!quiet) {
+            System.out.println(message);
+        }
+    }
+
+    public Configuration getConfiguration() {
+        return config;
+    }
+
+    public FileSystem getFileSystem() {
+        return fs;
+    }
+
+    /**
+     * 判断HDFS路径是否存在
+     */
+    public boolean checkPathExistence(String path) throws IOException {
+        return fs.exists(new Path(path));
+    }
+
+    /**
+     * 创建HDFS目录
+     */
+    public void createDirectory(String dirPath) throws IOException {
+        Path dir = new Path(dirPath);
+        if (!fs.exists(dir)) {
+            fs.mkdirs(dir);
+            info("<MyHDFS> 目录已创建: " + dirPath);
+        } else {
+            info("<MyHDFS> 目录已存在: " + dirPath);
+        }
+    }
+
+    /**
+     * 在HDFS上创建文件并写入指定内容（若文件已存在则覆盖）
+     */
+    public void createFileWithContent(String filePath, String content) throws IOException {
+        Path path = new Path(filePath);
+        // 使用 create() 会覆盖已存在的文件
+        try (FSDataOutputStream outputStream = fs.create(path, true)) {
+            outputStream.write(content.getBytes());
+        }
+        info("<MyHDFS> 文件创建并写入成功: " + filePath);
+    }
+
+    /**
+     * 将本地文件上传到HDFS指定路径（覆盖）
+     */
+    public void uploadFileToHDFS(String localFilePath, String remotePath) throws IOException {
+        Path localPath = new Path(localFilePath);
+        Path hdfsDestination = new Path(remotePath);
+        // copyFromLocalFile(false, true, ...) 会覆盖同名文件
+        fs.copyFromLocalFile(false, true, localPath, hdfsDestination);
+        info("<MyHDFS> 已将本地文件上传(覆盖)到HDFS: " + localFilePath + " -> " + remotePath);
+    }
+
+    /**
+     * 读取HDFS文件内容并返回（仅适用于小文件，超过 myhdfs.read.string.max.bytes 时拒绝读取，
+     * 大文件请使用流式的 readFileContent(path, OutputStream/WritableByteChannel)）
+     */
+    public String readFileContent(String hdfsFilePath) throws IOException {
+        FileStatus status = getFileStatusOrThrow(hdfsFilePath);
+        // 结果要放进一个 byte[]，配置值再大也不能超过数组的长度上限
+        long maxBytes = Math.min(config.getLong(READ_STRING_MAX_BYTES_KEY, READ_STRING_MAX_BYTES_DEFAULT),
+                Integer.MAX_VALUE - 8);
+        if (status.getLen() > maxBytes) {
+            throw new IOException("<MyHDFS> 文件过大(" + status.getLen() + " 字节 > " + maxBytes
+                    + ")，请改用流式读取: " + hdfsFilePath);
+        }
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream((int) status.getLen());
+        readFileContent(hdfsFilePath, baos);
+        return baos.toString();
+    }
+
+    /**
+     * 流式读取HDFS文件，将内容写入调用方提供的输出流（不会关闭该输出流）
+     * @return 读取的字节数
+     */
+    public long readFileContent(String hdfsFilePath, OutputStream out) throws IOException {
+        Path path = new Path(hdfsFilePath);
+        if (localFastPath) {
+            return transferLocal(path, hdfsFilePath, Channels.newChannel(out));
+        }
+        byte[] buffer = new byte[readBufferSize()];
+        long total = 0;
+        try (FSDataInputStream fis = openOrThrow(path, hdfsFilePath)) {
+            int bytesRead;
+            while ((bytesRead = fis.read(buffer)) != -1) {
+                out.write(buffer, 0, bytesRead);
+                total += bytesRead;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 流式读取HDFS文件，写入调用方提供的通道（不会关闭该通道）。
+     * 底层流支持 ByteBufferReadable 时直接读入 ByteBuffer，否则退回到数组读取
+     * @return 读取的字节数
+     */
+    public long readFileContent(String hdfsFilePath, WritableByteChannel channel) throws IOException {
+        Path path = new Path(hdfsFilePath);
+        if (localFastPath) {
+            return transferLocal(path, hdfsFilePath, channel);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(readBufferSize());
+        long total = 0;
+        try (FSDataInputStream fis = openOrThrow(path, hdfsFilePath)) {
+            boolean byteBufferReadable = fis.getWrappedStream() instanceof ByteBufferReadable;
+            while (true) {
+                int bytesRead;
+                if (byteBufferReadable) {
+                    bytesRead = fis.read(buffer);
+                } else {
+                    bytesRead = fis.read(buffer.array(), buffer.position(), buffer.remaining());
+                    if (bytesRead > 0) {
+                        buffer.position(buffer.position() + bytesRead);
+                    }
+                }
+                if (bytesRead == -1) {
+                    break;
+                }
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                buffer.clear();
+                total += bytesRead;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 本地文件系统快速路径：用 FileChannel.transferTo 把文件直接送入目标通道
+     * （目标是文件或 socket 时由内核完成拷贝，不经过用户态缓冲区）。
+     * 注意：这条路径不校验 LocalFileSystem 的 .crc 校验和
+     */
+    private long transferLocal(Path path, String hdfsFilePath, WritableByteChannel target) throws IOException {
+        File file = localFile(path);
+        if (!file.isFile()) {
+            throw new FileNotFoundException("<MyHDFS> 文件不存在: " + hdfsFilePath);
+        }
+        try (FileChannel in = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = in.size();
+            long position = 0;
+            while (position < size) {
+                long transferred = in.transferTo(position, size - position, target);
+                // 文件在拷贝过程中被截断时 transferTo 一直返回 0，不能继续循环
+                if (transferred <= 0 && in.size() <= position) {
+                    throw new EOFException("<MyHDFS> 文件在读取过程中被截断: " + hdfsFilePath
+                            + "（已读 " + position + " 字节，原大小 " + size + " 字节）");
+                }
+                position += transferred;
+            }
+            return size;
+        }
+    }
+
+    private File localFile(Path path) {
+        if (fs instanceof LocalFileSystem) {
+            return ((LocalFileSystem) fs).pathToFile(path);
+        }
+        return ((RawLocalFileSystem) fs).pathToFile(path);
+    }
+
+    /**
+     * 把文件拷贝到本地：本地文件系统走 FileChannel 零拷贝，HDFS 仍用 copyToLocalFile
+     */
+    private void copyToLocal(Path src, File dst) throws IOException {
+        if (!localFastPath) {
+            fs.copyToLocalFile(false, src, new Path(dst.getAbsolutePath()));
+            return;
+        }
+        try (FileChannel out = FileChannel.open(dst.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            transferLocal(src, src.toString(), out);
+        }
+    }
+
+    private int readBufferSize() {
+        return config.getInt(READ_BUFFER_SIZE_KEY, READ_BUFFER_SIZE_DEFAULT);
+    }
+
+    private FileStatus getFileStatusOrThrow(String hdfsFilePath) throws IOException {
+        try {
+            return fs.getFileStatus(new Path(hdfsFilePath));
+        } catch (FileNotFoundException e) {
+            throw new FileNotFoundException("<MyHDFS> 文件不存在: " + hdfsFilePath);
+        }
+    }
+
+    private FSDataInputStream openOrThrow(Path path, String hdfsFilePath) throws IOException {
+        try {
+            return fs.open(path, readBufferSize());
+        } catch (FileNotFoundException e) {
+            throw new FileNotFoundException("<MyHDFS> 文件不存在: " + hdfsFilePath);
+        }
+    }
+
+    /**
+     * 追加内容到HDFS文件的末尾
+     * 若目标文件系统不支持append，需要在Hadoop配置中启用append相关功能
+     */
+    public void appendContentToEnd(String hdfsFilePath, String content) throws IOException {
+        Path path = new Path(hdfsFilePath);
+
+        // 如果文件不存在，需要先创建
+        if (!fs.exists(path)) {
+            createFileWithContent(hdfsFilePath, content);
+            return;
+        }
+
+        // 优先走真正的 append，不重写原文件；只有文件系统不支持 append 时才用“临时文件 + 重命名”模拟。
+        // 只对 append() 本身的失败回退，写入过程中出错直接抛出，避免内容被重复追加
+        FSDataOutputStream appendStream;
+        try {
+            appendStream = fs.append(path);
+        } catch (IOException | UnsupportedOperationException e) {
+            // 如果 append 不支持，就使用模拟方式
+            simulateAppend(hdfsFilePath, content, false);
+            return;
+        }
+        try (FSDataOutputStream fos = appendStream) {
+            fos.write(content.getBytes());
+        }
+
+        info("<MyHDFS> 已向文件末尾追加内容: " + hdfsFilePath);
+    }
+
+    /**
+     * 追加内容到HDFS文件的开头（HDFS无直接prepend，需模拟: 先写新内容，再把原内容流式拷贝到同目录临时文件，最后原子替换）
+     */
+    public void appendContentToBeginning(String hdfsFilePath, String content) throws IOException {
+        Path path = new Path(hdfsFilePath);
+
+        // 如果文件不存在，直接创建写入即可
+        if (!fs.exists(path)) {
+            createFileWithContent(hdfsFilePath, content);
+            return;
+        }
+
+        // 使用“临时文件 + 原子重命名”模拟prepend
+        simulateAppend(hdfsFilePath, content, true);
+    }
+
+    /**
+     * 用“流式拷贝到临时文件 + 原子重命名”的方式，模拟向开头或末尾追加。
+     * 原内容直接从输入流拷贝到临时文件，不会整体读入内存，峰值堆占用与文件大小无关
+     * @param prepend 为 true 表示将新内容放在前面，否则追加在后面
+     */
+    private void simulateAppend(String hdfsFilePath, String newContent, boolean prepend) throws IOException {
+        Path path = new Path(hdfsFilePath);
+        FileStatus status = getFileStatusOrThrow(hdfsFilePath);
+        byte[] newBytes = newContent.getBytes();
+
+        // 1. 在目标文件旁边创建临时文件（同目录，保证 rename 不跨目录/挂载点）
+        Path tmp = new Path(path.getParent(), "." + path.getName() + "._MYHDFS_" + System.nanoTime() + "_");
+        int bufferSize = readBufferSize();
+        try {
+            try (FSDataOutputStream out = fs.create(tmp, status.getPermission(), false, bufferSize,
+                    status.getReplication(), status.getBlockSize(), null);
+                 FSDataInputStream in = fs.open(path, bufferSize)) {
+                // 2. 按 prepend 或者 append 的标记依次写入新内容和原内容
+                if (prepend) {
+                    out.write(newBytes);
+                }
+                byte[] buffer = new byte[bufferSize];
+                int bytesRead;
+                while ((bytesRead = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, bytesRead);
+                }
+                if (!prepend) {
+                    out.write(newBytes);
+                }
+            }
+
+            // 3. 用临时文件替换原文件：FileContext 的覆盖式 rename 对各种文件系统都可用，
+            //    HDFS 上是一次原子操作
+            FileContext.getFileContext(fs.getUri(), config).rename(tmp, path, Options.Rename.OVERWRITE);
+        } catch (IOException e) {
+            // 原文件还在时才删除临时文件；原文件已经不在了，临时文件就是唯一的副本，必须保留
+            if (fs.exists(path)) {
+                fs.delete(tmp, false);
+                throw e;
+            }
+            throw new IOException("<MyHDFS> 临时文件替换失败，原文件已不存在，完整内容保留在 " + tmp, e);
+        }
+        info("<MyHDFS> 使用模拟方式" + (prepend ? "在开头" : "在末尾") + "追加内容成功: " + hdfsFilePath);
+    }
+
+    /**
+     * 递归列出指定目录下的所有文件和子目录（并行遍历，按名称有序输出）
+     */
+    public void listFilesRecursively(String directoryPath) throws IOException {
+        Path path = new Path(directoryPath);
+
+        if (!fs.exists(path)) {
+            System.out.println("<MyHDFS> 目录不存在: " + directoryPath);
+            return;
+        }
+
+        System.out.println("<MyHDFS> 递归列出目录: " + directoryPath);
+        HDFSTreeWalker.Summary summary = newTreeWalker().walkOrdered(path, entry -> {
+            FileStatus status = entry.getStatus();
+            String indent = new String(new char[entry.getLevel()]).replace("\0", "   ");
+            if (status.isDirectory()) {
+                System.out.println(indent + "[DIR ] " + status.getPath().getName());
+            } else {
+                System.out.println(indent + "[FILE] " + status.getPath().getName() + " (size=" + status.getLen() + ")");
+            }
+        });
+        System.out.println("<MyHDFS> 统计: " + summary);
+    }
+
+    /**
+     * 创建并行目录遍历器，并发度由 myhdfs.list.threads 指定
+     */
+    public HDFSTreeWalker newTreeWalker() {
+        return new HDFSTreeWalker(fs, config.getInt(LIST_THREADS_KEY, LIST_THREADS_DEFAULT));
+    }
+
+    /**
+     * 创建批量传输引擎，并发数和切分阈值由 myhdfs.transfer.threads / myhdfs.transfer.split.size 指定，
+     * 用完后需 close() 释放线程池
+     */
+    public HDFSBulkTransfer newBulkTransfer() throws IOException {
+        return new HDFSBulkTransfer(fs,
+                config.getInt(TRANSFER_THREADS_KEY, TRANSFER_THREADS_DEFAULT),
+                config.getLong(TRANSFER_SPLIT_SIZE_KEY, TRANSFER_SPLIT_SIZE_DEFAULT),
+                readBufferSize());
+    }
+
+    /**
+     * 创建批量元数据操作执行器，并发数由 myhdfs.batch.threads 指定，用完后需 close() 释放线程池
+     */
+    public HDFSBatchOps newBatchOps() {
+        return new HDFSBatchOps(fs, config.getInt(BATCH_THREADS_KEY, BATCH_THREADS_DEFAULT));
+    }
+
+    /**
+     * 重命名或移动文件/目录
+     */
+    public void renamePath(String srcPath, String dstPath) throws IOException {
+        Path src = new Path(srcPath);
+        Path dst = new Path(dstPath);
+
+        if (!fs.exists(src)) {
+            info("<MyHDFS> 源路径不存在: " + srcPath);
+            return;
+        }
+        // 目标路径父目录如果不存在，需先创建
+        fs.mkdirs(dst.getParent());
+
+        boolean success = fs.rename(src, dst);
+        if (success) {
+            info("<MyHDFS> 重命名/移动成功: " + srcPath + " -> " + dstPath);
+        } else {
+            info("<MyHDFS> 重命名/移动失败: " + srcPath + " -> " + dstPath);
+        }
+    }
+
+    /**
+     * 删除HDFS上的文件或目录
+     * @param recursive 若要删除目录及其所有内容，应为 true
+     */
+    public void deletePath(String path, boolean recursive) throws IOException {
+        Path p = new Path(path);
+
+        if (!fs.exists(p)) {
+            info("<MyHDFS> 要删除的路径不存在: " + path);
+            return;
+        }
+
+        boolean result = fs.delete(p, recursive);
+        if (result) {
+            info("<MyHDFS> 删除成功: " + path);
+        } else {
+            info("<MyHDFS> 删除失败: " + path);
+        }
+    }
+
+    /**
+     * 从HDFS下载文件到本地。如果本地存在同名文件，则对下载的文件进行自动重命名
+     */
+    public void downloadFileFromHDFS(String hdfsFilePath, String localDir) throws IOException {
+        Path src = new Path(hdfsFilePath);
+
+        // 如果HDFS文件不存在，直接提示后返回
+        if (!fs.exists(src)) {
+            info("<MyHDFS> HDFS文件不存在: " + hdfsFilePath);
+            return;
+        }
+
+        // 确保本地目录存在
+        File localDirectory = new File(localDir);
+        if (!localDirectory.exists()) {
+            localDirectory.mkdirs();
+        }
+
+        // 构造要在本地保存的路径
+        String fileName = src.getName();
+        File localFile = new File(localDirectory, fileName);
+
+        // 如果本地已存在同名文件，则对下载文件进行自动改名
+        if (localFile.exists()) {
+            // 例如给它加上一个时间戳前缀/后缀
+            String renamedFileName = "download_" + System.currentTimeMillis() + "_" + fileName;
+            File renamedFile = new File(localDirectory, renamedFileName);
+            copyToLocal(src, renamedFile);
+            info("<MyHDFS> 本地已有同名文件，已将下载文件命名为: " + renamedFileName);
+        } else {
+            // 不存在同名文件时，按原名直接下载
+            copyToLocal(src, localFile);
+            info("<MyHDFS> 下载完成: " + localFile.getAbsolutePath());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        fs.close();
+    }
+}
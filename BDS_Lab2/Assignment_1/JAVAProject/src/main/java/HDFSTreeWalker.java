@@ -0,0 +1,229 @@
+/**
+ * 并行递归遍历HDFS目录树。
+ *
+ * 原先的 listFilesHelper 深度优先、一次只发一个 listStatus，目录很大时耗时几乎全是 NameNode 往返延迟。
+ * 这里基于 ForkJoinPool：每个子目录作为一个任务并发调用 listStatusIterator，
+ * 结果交给调用方提供的消费者，并统计目录数、文件数和总大小。
+ *
+ * 两种模式：
+ *   walk()        —— 边列边回调，消费者会在多个工作线程中被调用，需自行保证线程安全，输出顺序不确定；
+ *   walkOrdered() —— 并行列完后再按“目录优先深度遍历 + 同级按名称排序”的固定顺序在调用线程中回调。
+ */
+
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.RemoteIterator;
+import org.apache.hadoop.hdfs.DistributedFileSystem;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+public class HDFSTreeWalker {
+
+    /**
+     * 遍历得到的一个条目：文件状态 + 相对根目录的层级（根目录的直接子项为 0）
+     */
+    public static class Entry {
+        private final FileStatus status;
+        private final int level;
+
+        Entry(FileStatus status, int level) {
+            this.status = status;
+            this.level = level;
+        }
+
+        public FileStatus getStatus() {
+            return status;
+        }
+
+        public int getLevel() {
+            return level;
+        }
+    }
+
+    /**
+     * 遍历汇总信息
+     */
+    public static class Summary {
+        private final LongAdder directories = new LongAdder();
+        private final LongAdder files = new LongAdder();
+        private final LongAdder totalBytes = new LongAdder();
+
+        void record(FileStatus status) {
+            if (status.isDirectory()) {
+                directories.increment();
+            } else {
+                files.increment();
+                totalBytes.add(status.getLen());
+            }
+        }
+
+        public long getDirectoryCount() {
+            return directories.sum();
+        }
+
+        public long getFileCount() {
+            return files.sum();
+        }
+
+        public long getTotalBytes() {
+            return totalBytes.sum();
+        }
+
+        @Override
+        public String toString() {
+            return "目录数=" + getDirectoryCount() + ", 文件数=" + getFileCount() + ", 总大小=" + getTotalBytes();
+        }
+    }
+
+    private final FileSystem fs;
+    private final int parallelism;
+
+    public HDFSTreeWalker(FileSystem fs, int parallelism) {
+        this.fs = fs;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * 并行遍历，边列边回调（回调顺序不确定，consumer 必须线程安全）
+     */
+    public Summary walk(Path root, Consumer<Entry> consumer) throws IOException {
+        Summary summary = new Summary();
+        invoke(new ListTask(root, 0, summary, consumer));
+        return summary;
+    }
+
+    /**
+     * 并行遍历，遍历完成后按确定顺序在调用线程中回调
+     */
+    public Summary walkOrdered(Path root, Consumer<Entry> consumer) throws IOException {
+        Summary summary = new Summary();
+        List<Node> children = invoke(new ListTask(root, 0, summary, null));
+        emit(children, 0, consumer);
+        return summary;
+    }
+
+    private List<Node> invoke(ListTask task) throws IOException {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return pool.invoke(task);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * HDFS 上用分页的 listStatusIterator，大目录不必一次性返回；
+     * 其他文件系统用 listStatus（本地文件系统的迭代器不会过滤 .crc 校验文件）
+     */
+    private RemoteIterator<FileStatus> list(Path dir) throws IOException {
+        if (fs instanceof DistributedFileSystem) {
+            return fs.listStatusIterator(dir);
+        }
+        FileStatus[] statuses = fs.listStatus(dir);
+        return new RemoteIterator<FileStatus>() {
+            private int i = 0;
+
+            @Override
+            public boolean hasNext() {
+                return i < statuses.length;
+            }
+
+            @Override
+            public FileStatus next() {
+                return statuses[i++];
+            }
+        };
+    }
+
+    private static void emit(List<Node> nodes, int level, Consumer<Entry> consumer) {
+        for (Node node : nodes) {
+            consumer.accept(new Entry(node.status, level));
+            if (node.children != null) {
+                emit(node.children, level + 1, consumer);
+            }
+        }
+    }
+
+    // 有序模式下保存的目录树节点
+    private static class Node {
+        final FileStatus status;
+        List<Node> children;
+
+        Node(FileStatus status) {
+            this.status = status;
+        }
+    }
+
+    private static final Comparator<Node> BY_NAME = Comparator.comparing(n -> n.status.getPath().getName());
+
+    /**
+     * 列出一个目录，并为其中的每个子目录派生一个并发任务。
+     * consumer 为 null 时表示有序模式：不回调，而是返回排好序的子树
+     */
+    private class ListTask extends RecursiveTask<List<Node>> {
+        private static final long serialVersionUID = 1L;
+
+        private final Path dir;
+        private final int level;
+        private final Summary summary;
+        private final Consumer<Entry> consumer;
+
+        ListTask(Path dir, int level, Summary summary, Consumer<Entry> consumer) {
+            this.dir = dir;
+            this.level = level;
+            this.summary = summary;
+            this.consumer = consumer;
+        }
+
+        @Override
+        protected List<Node> compute() {
+            List<Node> nodes = consumer == null ? new ArrayList<>() : null;
+            List<ListTask> subTasks = new ArrayList<>();
+            List<Node> subNodes = new ArrayList<>();
+            try {
+                RemoteIterator<FileStatus> it = list(dir);
+                while (it.hasNext()) {
+                    FileStatus status = it.next();
+                    summary.record(status);
+                    Node node = null;
+                    if (nodes != null) {
+                        node = new Node(status);
+                        nodes.add(node);
+                    } else {
+                        consumer.accept(new Entry(status, level));
+                    }
+                    if (status.isDirectory()) {
+                        ListTask sub = new ListTask(status.getPath(), level + 1, summary, consumer);
+                        sub.fork();
+                        subTasks.add(sub);
+                        subNodes.add(node);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            for (int i = 0; i < subTasks.size(); i++) {
+                List<Node> children = subTasks.get(i).join();
+                if (nodes != null) {
+                    subNodes.get(i).children = children;
+                }
+            }
+            if (nodes != null) {
+                nodes.sort(BY_NAME);
+            }
+            return nodes;
+        }
+    }
+}
@@ -17,208 +17,77 @@ import java.util.Scanner;
 
 public class MyHDFS {
 
+    // 以下静态方法保留原有签名，内部委托给与 config 绑定的共享 HDFSSession，
+    // 不再每次 FileSystem.get() 之后 close()
+
     /**
      * 判断HDFS路径是否存在
      */
     public static boolean checkPathExistence(Configuration config, String path) throws IOException {
-        FileSystem fs = FileSystem.get(config);
-        boolean exists = fs.exists(new Path(path));
-        fs.close();
-        return exists;
+        return HDFSSession.shared(config).checkPathExistence(path);
     }
 
     /**
      * 创建HDFS目录
      */
     public static void createDirectory(Configuration config, String dirPath) throws IOException {
-        FileSystem fs = FileSystem.get(config);
-        Path dir = new Path(dirPath);
-        if (!fs.exists(dir)) {
-            fs.mkdirs(dir);
-            System.out.println("<MyHDFS> 目录已创建: " + dirPath);
-        } else {
-            System.out.println("<MyHDFS> 目录已存在: " + dirPath);
-        }
-        fs.close();
+        HDFSSession.shared(config).createDirectory(dirPath);
     }
 
     /**
      * 在HDFS上创建文件并写入指定内容（若文件已存在则覆盖）
      */
     public static void createFileWithContent(Configuration config, String filePath, String content) throws IOException {
-        FileSystem fs = FileSystem.get(config);
-        Path path = new Path(filePath);
-        // 使用 create() 会覆盖已存在的文件
-        try (FSDataOutputStream outputStream = fs.create(path, true)) {
-            outputStream.write(content.getBytes());
-        }
-        System.out.println("<MyHDFS> 文件创建并写入成功: " + filePath);
-        fs.close();
+        HDFSSession.shared(config).createFileWithContent(filePath, content);
     }
 
     /**
      * 将本地文件上传到HDFS指定路径（覆盖）
      */
     public static void uploadFileToHDFS(Configuration config, String localFilePath, String remotePath) throws IOException {
-        FileSystem fs = FileSystem.get(config);
-        Path localPath = new Path(localFilePath);
-        Path hdfsDestination = new Path(remotePath);
-        // copyFromLocalFile(false, true, ...) 会覆盖同名文件
-        fs.copyFromLocalFile(false, true, localPath, hdfsDestination);
-        System.out.println("<MyHDFS> 已将本地文件上传(覆盖)到HDFS: " + localFilePath + " -> " + remotePath);
-        fs.close();
+        HDFSSession.shared(config).uploadFileToHDFS(localFilePath, remotePath);
     }
 
     /**
      * 读取HDFS文件内容并返回
      */
     public static String readFileContent(Configuration config, String hdfsFilePath) throws IOException {
-        FileSystem fs = FileSystem.get(config);
-        Path path = new Path(hdfsFilePath);
-        if (!fs.exists(path)) {
-            fs.close();
-            throw new FileNotFoundException("<MyHDFS> 文件不存在: " + hdfsFilePath);
-        }
-
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        try (FSDataInputStream fis = fs.open(path)) {
-            byte[] buffer = new byte[4096];
-            int bytesRead;
-            while ((bytesRead = fis.read(buffer)) != -1) {
-                baos.write(buffer, 0, bytesRead);
-            }
-        }
-        fs.close();
-        return baos.toString();
+        return HDFSSession.shared(config).readFileContent(hdfsFilePath);
     }
 
     /**
-     * 追加内容到HDFS文件的末尾
-     * 若目标文件系统不支持append，需要在Hadoop配置中启用append相关功能
+     * 流式读取HDFS文件内容并写入指定输出流，适用于大文件
      */
-    public static void appendContentToEnd(Configuration config, String hdfsFilePath, String content) throws IOException {
-        FileSystem fs = FileSystem.get(config);
-        Path path = new Path(hdfsFilePath);
-
-        // 如果文件不存在，需要先创建
-        if (!fs.exists(path)) {
-            createFileWithContent(config, hdfsFilePath, content);
-            return;
-        }
-
-        // 如果当前文件系统不支持append，可以用“先读后写”的方式模拟
-        // 这里假设可以直接append，如果不行请改用 read + create 覆盖写回
-        try (FSDataOutputStream fos = fs.append(path)) {
-            fos.write(content.getBytes());
-        } catch (IOException e) {
-            // 如果 append 不支持，就使用模拟方式
-            fs.close();
-            simulateAppend(config, hdfsFilePath, content, false);
-            return;
-        }
-
-        System.out.println("<MyHDFS> 已向文件末尾追加内容: " + hdfsFilePath);
-        fs.close();
+    public static long readFileContent(Configuration config, String hdfsFilePath, OutputStream out) throws IOException {
+        return HDFSSession.shared(config).readFileContent(hdfsFilePath, out);
     }
 
     /**
-     * 追加内容到HDFS文件的开头（HDFS无直接prepend，需模拟: 先读出原内容，再覆盖写“新内容+原内容”）
+     * 追加内容到HDFS文件的末尾
      */
-    public static void appendContentToBeginning(Configuration config, String hdfsFilePath, String content) throws IOException {
-        FileSystem fs = FileSystem.get(config);
-        Path path = new Path(hdfsFilePath);
-
-        // 如果文件不存在，直接创建写入即可
-        if (!fs.exists(path)) {
-            createFileWithContent(config, hdfsFilePath, content);
-            return;
-        }
-        fs.close();
-
-        // 使用“先读后写”模拟prepend
-        simulateAppend(config, hdfsFilePath, content, true);
+    public static void appendContentToEnd(Configuration config, String hdfsFilePath, String content) throws IOException {
+        HDFSSession.shared(config).appendContentToEnd(hdfsFilePath, content);
     }
 
     /**
-     * 用“读取原内容 + 覆盖写”的方式，模拟向开头或末尾追加
-     * @param prepend 为 true 表示将新内容放在前面，否则追加在后面
+     * 追加内容到HDFS文件的开头
      */
-    private static void simulateAppend(Configuration config, String hdfsFilePath, String newContent, boolean prepend) throws IOException {
-        // 1. 读取原文件内容
-        String oldContent = "";
-        try {
-            oldContent = readFileContent(config, hdfsFilePath);
-        } catch (FileNotFoundException e) {
-            // 若文件不存在则忽略
-        }
-
-        // 2. 根据 prepend 或者 append 的标记重组内容
-        String finalContent;
-        if (prepend) {
-            finalContent = newContent + oldContent;
-        } else {
-            finalContent = oldContent + newContent;
-        }
-
-        // 3. 覆盖写回
-        createFileWithContent(config, hdfsFilePath, finalContent);
-        System.out.println("<MyHDFS> 使用模拟方式" + (prepend ? "在开头" : "在末尾") + "追加内容成功: " + hdfsFilePath);
+    public static void appendContentToBeginning(Configuration config, String hdfsFilePath, String content) throws IOException {
+        HDFSSession.shared(config).appendContentToBeginning(hdfsFilePath, content);
     }
 
     /**
      * 递归列出指定目录下的所有文件和子目录
      */
     public static void listFilesRecursively(Configuration config, String directoryPath) throws IOException {
-        FileSystem fs = FileSystem.get(config);
-        Path path = new Path(directoryPath);
-
-        if (!fs.exists(path)) {
-            System.out.println("<MyHDFS> 目录不存在: " + directoryPath);
-            fs.close();
-            return;
-        }
-
-        System.out.println("<MyHDFS> 递归列出目录: " + directoryPath);
-        listFilesHelper(fs, path, 0);
-        fs.close();
-    }
-
-    private static void listFilesHelper(FileSystem fs, Path path, int level) throws IOException {
-        FileStatus[] fileStatuses = fs.listStatus(path);
-        for (FileStatus status : fileStatuses) {
-            String indent = new String(new char[level]).replace("\0", "   ");
-            if (status.isDirectory()) {
-                System.out.println(indent + "[DIR ] " + status.getPath().getName());
-                listFilesHelper(fs, status.getPath(), level + 1);
-            } else {
-                System.out.println(indent + "[FILE] " + status.getPath().getName() + " (size=" + status.getLen() + ")");
-            }
-        }
+        HDFSSession.shared(config).listFilesRecursively(directoryPath);
     }
 
     /**
      * 重命名或移动文件/目录
      */
     public static void renamePath(Configuration config, String srcPath, String dstPath) throws IOException {
-        FileSystem fs = FileSystem.get(config);
-        Path src = new Path(srcPath);
-        Path dst = new Path(dstPath);
-
-        if (!fs.exists(src)) {
-            System.out.println("<MyHDFS> 源路径不存在: " + srcPath);
-            fs.close();
-            return;
-        }
-        // 目标路径父目录如果不存在，需先创建
-        fs.mkdirs(dst.getParent());
-
-        boolean success = fs.rename(src, dst);
-        if (success) {
-            System.out.println("<MyHDFS> 重命名/移动成功: " + srcPath + " -> " + dstPath);
-        } else {
-            System.out.println("<MyHDFS> 重命名/移动失败: " + srcPath + " -> " + dstPath);
-        }
-        fs.close();
+        HDFSSession.shared(config).renamePath(srcPath, dstPath);
     }
 
     /**
@@ -226,62 +95,14 @@ public class MyHDFS {
      * @param recursive 若要删除目录及其所有内容，应为 true
      */
     public static void deletePath(Configuration config, String path, boolean recursive) throws IOException {
-        FileSystem fs = FileSystem.get(config);
-        Path p = new Path(path);
-
-        if (!fs.exists(p)) {
-            System.out.println("<MyHDFS> 要删除的路径不存在: " + path);
-            fs.close();
-            return;
-        }
-
-        boolean result = fs.delete(p, recursive);
-        if (result) {
-            System.out.println("<MyHDFS> 删除成功: " + path);
-        } else {
-            System.out.println("<MyHDFS> 删除失败: " + path);
-        }
-        fs.close();
+        HDFSSession.shared(config).deletePath(path, recursive);
     }
 
     /**
      * 从HDFS下载文件到本地。如果本地存在同名文件，则对下载的文件进行自动重命名
      */
     public static void downloadFileFromHDFS(Configuration config, String hdfsFilePath, String localDir) throws IOException {
-        FileSystem fs = FileSystem.get(config);
-        Path src = new Path(hdfsFilePath);
-
-        // 如果HDFS文件不存在，直接提示后返回
-        if (!fs.exists(src)) {
-            System.out.println("<MyHDFS> HDFS文件不存在: " + hdfsFilePath);
-            fs.close();
-            return;
-        }
-
-        // 确保本地目录存在
-        File localDirectory = new File(localDir);
-        if (!localDirectory.exists()) {
-            localDirectory.mkdirs();
-        }
-
-        // 构造要在本地保存的路径
-        String fileName = src.getName(); 
-        File localFile = new File(localDirectory, fileName);
-
-        // 如果本地已存在同名文件，则对下载文件进行自动改名
-        if (localFile.exists()) {
-            // 例如给它加上一个时间戳前缀/后缀
-            String renamedFileName = "download_" + System.currentTimeMillis() + "_" + fileName;
-            File renamedFile = new File(localDirectory, renamedFileName);
-            fs.copyToLocalFile(false, src, new Path(renamedFile.getAbsolutePath()));
-            System.out.println("<MyHDFS> 本地已有同名文件，已将下载文件命名为: " + renamedFileName);
-        } else {
-            // 不存在同名文件时，按原名直接下载
-            fs.copyToLocalFile(false, src, new Path(localFile.getAbsolutePath()));
-            System.out.println("<MyHDFS> 下载完成: " + localFile.getAbsolutePath());
-        }
-
-        fs.close();
+        HDFSSession.shared(config).downloadFileFromHDFS(hdfsFilePath, localDir);
     }
 
     public static void main(String[] args) {
@@ -296,8 +117,9 @@ public class MyHDFS {
             // 加载 core-site.xml 和 hdfs-site.xml
             config.addResource(new Path("/usr/local/hadoop/etc/hadoop/core-site.xml"));
             config.addResource(new Path("/usr/local/hadoop/etc/hadoop/hdfs-site.xml"));
-            
-            FileSystem fs = FileSystem.get(config);
+
+            // 建立共享会话，后续所有操作复用同一个 FileSystem
+            HDFSSession.shared(config);
          } catch (IOException e) {
             e.printStackTrace();
         }
@@ -322,8 +144,9 @@ public class MyHDFS {
             // 输出文件到终端
             System.out.println("\n===== 输出 " + testFilePath + " 文件内容 =====");
             try {
-                String content = readFileContent(config, testFilePath);
-                System.out.println("<MYHDFS> 文件内容如下：\n" + content);
+                System.out.println("<MYHDFS> 文件内容如下：");
+                readFileContent(config, testFilePath, System.out);
+                System.out.println();
             } catch (Exception e) {
                 System.out.println("<MYHDFS> 读取文件内容出错: " + e.getMessage());
             }
@@ -362,8 +185,9 @@ public class MyHDFS {
             // 输出追加或覆盖后的文件到终端
             System.out.println("\n===== 输出 " + testFilePath + " 文件内容 =====");
             try {
-                String content = readFileContent(config, testFilePath);
-                System.out.println("<MYHDFS> 文件内容如下：\n" + content);
+                System.out.println("<MYHDFS> 文件内容如下：");
+                readFileContent(config, testFilePath, System.out);
+                System.out.println();
             } catch (Exception e) {
                 System.out.println("<MYHDFS> 读取文件内容出错: " + e.getMessage());
             }
@@ -412,6 +236,7 @@ public class MyHDFS {
             e.printStackTrace();
         } finally {
             scanner.close();
+            HDFSSession.closeShared();
         }
     }
 
@@ -0,0 +1,395 @@
+/**
+ * MyHDFS 性能对比小工具（非 JMH，直接 main 运行，避免给实验工程引入额外依赖）。
+ *
+ * 默认在本地 file:// 文件系统的临时目录下运行；第二个参数可指定 fs.defaultFS（如 hdfs://localhost:9000）。
+ * 用法：
+ *   java -cp build/libs/MyHDFS.jar MyHDFSBenchmark session [fs.defaultFS]
+ *   java -Dsizes=1m,100m,2g -cp build/libs/MyHDFS.jar MyHDFSBenchmark read [fs.defaultFS]
+ *   java -Dthreads=1,4,16 -cp build/libs/MyHDFS.jar MyHDFSBenchmark list [fs.defaultFS]
+ *   java -Dfiles=500 -Dlarge=512m -cp build/libs/MyHDFS.jar MyHDFSBenchmark transfer [fs.defaultFS]
+ *   java -Dsize=1g -cp build/libs/MyHDFS.jar MyHDFSBenchmark local
+ *   java -Dops=10000 -cp build/libs/MyHDFS.jar MyHDFSBenchmark batch [fs.defaultFS]
+ */
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class MyHDFSBenchmark {
+
+    private static final int WARMUP_OPS = 500;
+    private static final int MEASURE_OPS = 5000;
+
+    public static void main(String[] args) throws Exception {
+        String scenario = args.length > 0 ? args[0] : "session";
+        String defaultFS = args.length > 1 ? args[1] : "file:///";
+
+        Configuration config = new Configuration();
+        config.set("fs.defaultFS", defaultFS);
+        String baseDir = "/tmp/myhdfs-bench-" + System.currentTimeMillis();
+
+        try {
+            switch (scenario) {
+                case "session":
+                    benchSession(config, baseDir);
+                    break;
+                case "read":
+                    benchRead(config, baseDir, System.getProperty("sizes", "1m,100m"));
+                    break;
+                case "list":
+                    benchList(config, baseDir, System.getProperty("threads", "1,4,16"));
+                    break;
+                case "local":
+                    benchLocal(config, baseDir, parseSize(System.getProperty("size", "1g")));
+                    break;
+                case "batch":
+                    benchBatch(config, baseDir, Integer.getInteger("ops", 10000));
+                    break;
+                case "transfer":
+                    benchTransfer(config, baseDir, Integer.getInteger("files", 500),
+                            parseSize(System.getProperty("large", "512m")));
+                    break;
+                default:
+                    System.out.println("<MyHDFS> 未知的测试场景: " + scenario);
+            }
+        } finally {
+            try (FileSystem fs = FileSystem.newInstance(config)) {
+                fs.delete(new Path(baseDir), true);
+            }
+        }
+    }
+
+    /**
+     * 对比“每次 get + close”与“共享会话”两种方式下元数据操作（exists/mkdirs/delete）的 ops/sec
+     */
+    private static void benchSession(Configuration config, String baseDir) throws IOException {
+        runMetadataOps(config, baseDir + "/warmup-old", WARMUP_OPS, null);
+        double oldOps = runMetadataOps(config, baseDir + "/old", MEASURE_OPS, null);
+
+        try (HDFSSession session = new HDFSSession(config)) {
+            runMetadataOps(config, baseDir + "/warmup-new", WARMUP_OPS, session);
+            double newOps = runMetadataOps(config, baseDir + "/new", MEASURE_OPS, session);
+            report("get/close per call", oldOps);
+            report("shared HDFSSession", newOps);
+            System.out.printf("<MyHDFS> speedup: %.2fx%n", newOps / oldOps);
+        }
+    }
+
+    private static double runMetadataOps(Configuration config, String dir, int ops, HDFSSession session) throws IOException {
+        long start = System.nanoTime();
+        for (int i = 0; i < ops; i++) {
+            Path p = new Path(dir + "/d" + (i % 64));
+            FileSystem fs = session != null ? session.getFileSystem() : FileSystem.get(config);
+            switch (i % 3) {
+                case 0:
+                    fs.mkdirs(p);
+                    break;
+                case 1:
+                    fs.exists(p);
+                    break;
+                default:
+                    fs.delete(p, true);
+            }
+            if (session == null) {
+                fs.close();
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        return ops / (elapsed / 1e9);
+    }
+
+    /**
+     * 对比旧的“4KB 缓冲 + ByteArrayOutputStream”读取与新的流式读取的吞吐量和分配量
+     */
+    private static void benchRead(Configuration config, String baseDir, String sizes) throws IOException {
+        try (HDFSSession session = new HDFSSession(config)) {
+            FileSystem fs = session.getFileSystem();
+            for (String size : sizes.split(",")) {
+                long bytes = parseSize(size.trim());
+                String file = baseDir + "/read-" + size.trim() + ".bin";
+                writeRandomFile(fs, new Path(file), bytes);
+                System.out.println("<MyHDFS> 文件大小: " + size.trim());
+
+                // ByteArrayOutputStream 最多容纳 2GB，且扩容时需要双倍内存
+                if (bytes < Integer.MAX_VALUE / 2) {
+                    measureRead("old 4KB + BAOS", bytes, () -> readOldStyle(fs, new Path(file)));
+                } else {
+                    System.out.println("<MyHDFS>   old 4KB + BAOS           跳过（文件过大，旧实现会耗尽堆内存）");
+                }
+                measureRead("stream -> OutputStream", bytes, () -> session.readFileContent(file, NULL_STREAM));
+                measureRead("stream -> Channel", bytes, () -> session.readFileContent(file, NULL_CHANNEL));
+            }
+        }
+    }
+
+    /**
+     * 对比原先串行的递归 listStatus 与不同并发度的 HDFSTreeWalker
+     */
+    private static void benchList(Configuration config, String baseDir, String threads) throws IOException {
+        try (HDFSSession session = new HDFSSession(config)) {
+            FileSystem fs = session.getFileSystem();
+            Path root = new Path(baseDir + "/tree");
+            for (int i = 0; i < 20; i++) {
+                for (int j = 0; j < 50; j++) {
+                    Path dir = new Path(root, "d" + i + "/d" + j);
+                    fs.mkdirs(dir);
+                    for (int k = 0; k < 10; k++) {
+                        fs.create(new Path(dir, "f" + k), true).close();
+                    }
+                }
+            }
+
+            listSequential(fs, root); // 预热
+            long start = System.nanoTime();
+            long count = listSequential(fs, root);
+            report("sequential listStatus", count / ((System.nanoTime() - start) / 1e9));
+
+            for (String t : threads.split(",")) {
+                HDFSTreeWalker walker = new HDFSTreeWalker(fs, Integer.parseInt(t.trim()));
+                walker.walk(root, e -> { });
+                start = System.nanoTime();
+                HDFSTreeWalker.Summary summary = walker.walk(root, e -> { });
+                long entries = summary.getDirectoryCount() + summary.getFileCount();
+                report("walker threads=" + t.trim(), entries / ((System.nanoTime() - start) / 1e9));
+            }
+        }
+    }
+
+    /**
+     * 对比逐个 uploadFileToHDFS/downloadFileFromHDFS 与 HDFSBulkTransfer 的批量并行传输
+     */
+    private static void benchTransfer(Configuration config, String baseDir, int files, long largeBytes) throws IOException {
+        File localSrc = new File(baseDir + "/local-src");
+        localSrc.mkdirs();
+        byte[] small = new byte[64 * 1024];
+        new Random(42).nextBytes(small);
+        for (int i = 0; i < files; i++) {
+            java.nio.file.Files.write(new File(localSrc, "small-" + i + ".bin").toPath(), small);
+        }
+        // getLocal 返回的是缓存中共享的实例，不能关闭
+        writeRandomFile(FileSystem.getLocal(config), new Path(localSrc.getAbsolutePath(), "large.bin"), largeBytes);
+        long totalBytes = (long) files * small.length + largeBytes;
+
+        try (HDFSSession session = new HDFSSession(quiet(config))) {
+            // 逐个传输（原有方式）
+            File[] sources = localSrc.listFiles((dir, name) -> !name.endsWith(".crc"));
+            long start = System.nanoTime();
+            for (File f : sources) {
+                session.uploadFileToHDFS(f.getAbsolutePath(), baseDir + "/remote-seq/" + f.getName());
+            }
+            reportMBps("sequential upload", totalBytes, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            for (File f : sources) {
+                session.downloadFileFromHDFS(baseDir + "/remote-seq/" + f.getName(), baseDir + "/local-seq");
+            }
+            reportMBps("sequential download", totalBytes, System.nanoTime() - start);
+
+            // 批量并行传输
+            try (HDFSBulkTransfer transfer = session.newBulkTransfer()) {
+                HDFSBulkTransfer.Report up = transfer.upload(localSrc.getAbsolutePath(), baseDir + "/remote-bulk");
+                System.out.printf("<MyHDFS> %-24s %12.1f MB/s%n", "bulk upload", up.getMBps());
+                HDFSBulkTransfer.Report down = transfer.download(baseDir + "/remote-bulk", baseDir + "/local-bulk");
+                System.out.printf("<MyHDFS> %-24s %12.1f MB/s%n", "bulk download", down.getMBps());
+            }
+        }
+    }
+
+    /**
+     * 本地文件系统上对比 Hadoop 流路径（myhdfs.local.fastpath=false）与 FileChannel 快速路径的读取与下载
+     */
+    private static void benchLocal(Configuration config, String baseDir, long bytes) throws IOException {
+        Configuration slowConf = quiet(config);
+        slowConf.setBoolean(HDFSSession.LOCAL_FAST_PATH_KEY, false);
+        Configuration fastConf = quiet(config);
+        fastConf.setBoolean(HDFSSession.LOCAL_FAST_PATH_KEY, true);
+        String file = baseDir + "/local.bin";
+
+        try (HDFSSession slow = new HDFSSession(slowConf); HDFSSession fast = new HDFSSession(fastConf)) {
+            writeRandomFile(slow.getFileSystem(), new Path(file), bytes);
+            try (java.nio.channels.FileChannel devNull = java.nio.channels.FileChannel.open(
+                    java.nio.file.Paths.get("/dev/null"), java.nio.file.StandardOpenOption.WRITE)) {
+                measureRead("hadoop stream -> stream", bytes, () -> slow.readFileContent(file, NULL_STREAM));
+                measureRead("fast path -> stream", bytes, () -> fast.readFileContent(file, NULL_STREAM));
+                measureRead("hadoop stream -> channel", bytes, () -> slow.readFileContent(file, devNull));
+                measureRead("fast path -> channel", bytes, () -> fast.readFileContent(file, devNull));
+            }
+
+            long start = System.nanoTime();
+            slow.downloadFileFromHDFS(file, baseDir + "/download-slow");
+            long slowNanos = System.nanoTime() - start;
+            start = System.nanoTime();
+            fast.downloadFileFromHDFS(file, baseDir + "/download-fast");
+            long fastNanos = System.nanoTime() - start;
+            reportMBps("hadoop copyToLocalFile", bytes, slowNanos);
+            reportMBps("fast path download", bytes, fastNanos);
+        }
+    }
+
+    /**
+     * 对比逐个调用 createDirectory/renamePath/deletePath（先 exists 再操作）与 HDFSBatchOps 批量执行，
+     * 操作总数为 ops，mkdir、rename、delete 各占三分之一
+     */
+    private static void benchBatch(Configuration config, String baseDir, int ops) throws IOException {
+        int n = ops / 3;
+        try (HDFSSession session = new HDFSSession(quiet(config))) {
+            long start = System.nanoTime();
+            for (int i = 0; i < n; i++) {
+                session.createDirectory(baseDir + "/seq/d" + i);
+            }
+            for (int i = 0; i < n; i++) {
+                session.renamePath(baseDir + "/seq/d" + i, baseDir + "/seq/r" + i);
+            }
+            for (int i = 0; i < n; i++) {
+                session.deletePath(baseDir + "/seq/r" + i, true);
+            }
+            report("sequential with exists()", 3.0 * n / ((System.nanoTime() - start) / 1e9));
+
+            try (HDFSBatchOps batch = session.newBatchOps()) {
+                List<HDFSBatchOps.Op> mkdirs = new ArrayList<>();
+                List<HDFSBatchOps.Op> renames = new ArrayList<>();
+                List<HDFSBatchOps.Op> deletes = new ArrayList<>();
+                for (int i = 0; i < n; i++) {
+                    mkdirs.add(HDFSBatchOps.Op.mkdir(baseDir + "/batch/d" + i));
+                    renames.add(HDFSBatchOps.Op.rename(baseDir + "/batch/d" + i, baseDir + "/batch/r" + i));
+                    deletes.add(HDFSBatchOps.Op.delete(baseDir + "/batch/r" + i, true));
+                }
+                start = System.nanoTime();
+                long failures = 0;
+                for (List<HDFSBatchOps.Op> phase : Arrays.asList(mkdirs, renames, deletes)) {
+                    failures += batch.execute(phase).stream().filter(r -> !r.isSuccess()).count();
+                }
+                report("HDFSBatchOps", 3.0 * n / ((System.nanoTime() - start) / 1e9));
+                System.out.println("<MyHDFS>   失败操作数: " + failures);
+            }
+        }
+    }
+
+    // 关闭 HDFSSession 逐个操作的提示信息，避免输出本身影响计时
+    private static Configuration quiet(Configuration config) {
+        Configuration conf = new Configuration(config);
+        conf.setBoolean(HDFSSession.QUIET_KEY, true);
+        return conf;
+    }
+
+    private static void reportMBps(String name, long bytes, long nanos) {
+        System.out.printf("<MyHDFS> %-24s %12.1f MB/s%n", name, (bytes / 1048576.0) / (nanos / 1e9));
+    }
+
+    private static long listSequential(FileSystem fs, Path dir) throws IOException {
+        long count = 0;
+        for (FileStatus status : fs.listStatus(dir)) {
+            count++;
+            if (status.isDirectory()) {
+                count += listSequential(fs, status.getPath());
+            }
+        }
+        return count;
+    }
+
+    private interface ReadTask {
+        void run() throws IOException;
+    }
+
+    private static void measureRead(String name, long bytes, ReadTask task) throws IOException {
+        task.run(); // 预热
+        com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long tid = Thread.currentThread().getId();
+        long allocBefore = mx.getThreadAllocatedBytes(tid);
+        long start = System.nanoTime();
+        task.run();
+        long elapsed = System.nanoTime() - start;
+        long allocated = mx.getThreadAllocatedBytes(tid) - allocBefore;
+        System.out.printf("<MyHDFS>   %-24s %10.1f MB/s  allocated %10.1f MB%n",
+                name, (bytes / 1048576.0) / (elapsed / 1e9), allocated / 1048576.0);
+    }
+
+    // 旧实现：4KB 缓冲区 + ByteArrayOutputStream + toString()
+    private static String readOldStyle(FileSystem fs, Path path) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (FSDataInputStream fis = fs.open(path)) {
+            byte[] buffer = new byte[4096];
+            int bytesRead;
+            while ((bytesRead = fis.read(buffer)) != -1) {
+                baos.write(buffer, 0, bytesRead);
+            }
+        }
+        return baos.toString();
+    }
+
+    static void writeRandomFile(FileSystem fs, Path path, long bytes) throws IOException {
+        byte[] chunk = new byte[1024 * 1024];
+        new Random(42).nextBytes(chunk);
+        try (FSDataOutputStream out = fs.create(path, true)) {
+            long remaining = bytes;
+            while (remaining > 0) {
+                int n = (int) Math.min(chunk.length, remaining);
+                out.write(chunk, 0, n);
+                remaining -= n;
+            }
+        }
+    }
+
+    static long parseSize(String size) {
+        String s = size.toLowerCase();
+        long unit = 1;
+        if (s.endsWith("k")) {
+            unit = 1024L;
+        } else if (s.endsWith("m")) {
+            unit = 1024L * 1024;
+        } else if (s.endsWith("g")) {
+            unit = 1024L * 1024 * 1024;
+        }
+        if (unit > 1) {
+            s = s.substring(0, s.length() - 1);
+        }
+        return Long.parseLong(s) * unit;
+    }
+
+    private static final OutputStream NULL_STREAM = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+
+    private static final WritableByteChannel NULL_CHANNEL = new WritableByteChannel() {
+        @Override
+        public int write(ByteBuffer src) {
+            int n = src.remaining();
+            src.position(src.limit());
+            return n;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    private static void report(String name, double opsPerSec) {
+        System.out.printf("<MyHDFS> %-24s %12.0f ops/sec%n", name, opsPerSec);
+    }
+}
@@ -0,0 +1,133 @@
+/**
+ * 本地文件的内存映射输入流，供 fs.defaultFS 为 file:// 时的按行读取快速路径使用。
+ *
+ * 按窗口（默认 256MB）把文件 map 成 MappedByteBuffer，读取只是从页缓存做一次内存拷贝，
+ * 不再经过 Hadoop LocalFileSystem 的 .crc 校验和逐次 read 系统调用。
+ * 实现 Seekable 和 PositionedReadable，以便作为 MyHDFS（FSDataInputStream）的底层流。
+ */
+
+import org.apache.hadoop.fs.PositionedReadable;
+import org.apache.hadoop.fs.Seekable;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+public class LocalMappedInputStream extends InputStream implements Seekable, PositionedReadable {
+
+    private static final long WINDOW_SIZE = 256L * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final long size;
+    private MappedByteBuffer window;
+    private long windowStart;
+    private long position;
+
+    public LocalMappedInputStream(File file) throws IOException {
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        this.size = channel.size();
+    }
+
+    // 确保当前位置处在已映射的窗口内，返回窗口内剩余字节数
+    private int ensureMapped() throws IOException {
+        if (position >= size) {
+            return 0;
+        }
+        if (window == null || position < windowStart || position >= windowStart + window.limit()) {
+            windowStart = position;
+            window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, Math.min(WINDOW_SIZE, size - windowStart));
+        }
+        window.position((int) (position - windowStart));
+        return window.remaining();
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (ensureMapped() == 0) {
+            return -1;
+        }
+        position++;
+        return window.get() & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        int remaining = ensureMapped();
+        if (remaining == 0) {
+            return -1;
+        }
+        int n = Math.min(remaining, len);
+        window.get(b, off, n);
+        position += n;
+        return n;
+    }
+
+    @Override
+    public long skip(long n) {
+        long skipped = Math.max(0, Math.min(n, size - position));
+        position += skipped;
+        return skipped;
+    }
+
+    @Override
+    public int available() {
+        return (int) Math.min(Integer.MAX_VALUE, size - position);
+    }
+
+    @Override
+    public void seek(long pos) throws IOException {
+        if (pos < 0 || pos > size) {
+            throw new EOFException("Cannot seek to " + pos + ", file size is " + size);
+        }
+        position = pos;
+    }
+
+    @Override
+    public long getPos() {
+        return position;
+    }
+
+    @Override
+    public boolean seekToNewSource(long targetPos) {
+        return false;
+    }
+
+    @Override
+    public int read(long pos, byte[] b, int off, int len) throws IOException {
+        if (pos >= size) {
+            return -1;
+        }
+        return channel.read(ByteBuffer.wrap(b, off, (int) Math.min(len, size - pos)), pos);
+    }
+
+    @Override
+    public void readFully(long pos, byte[] b, int off, int len) throws IOException {
+        int done = 0;
+        while (done < len) {
+            int n = read(pos + done, b, off + done, len - done);
+            if (n < 0) {
+                throw new EOFException("End of file reached before reading fully.");
+            }
+            done += n;
+        }
+    }
+
+    @Override
+    public void readFully(long pos, byte[] b) throws IOException {
+        readFully(pos, b, 0, b.length);
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+}
@@ -3,44 +3,351 @@
  * 该类继承“org.apache.hadoop.fs.FSDataInputStream”，
  * 要求如下：实现按行读取HDFS中指定文件的方法“readLine()”，
  * 如果读到文件末尾，则返回空，否则返回文件一行的文本。
+ *
+ * 说明：FSDataInputStream 继承自 DataInputStream，其 readLine() 是 final 的，无法覆盖，
+ * 因此按行读取方法命名为 nextLine()，另提供零拷贝的 nextLineSlice()。
  */
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FSDataInputStream;
 import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.LocalFileSystem;
 import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.PositionedReadable;
+import org.apache.hadoop.fs.RawLocalFileSystem;
+import org.apache.hadoop.fs.Seekable;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 public class MyHDFS extends FSDataInputStream {
 
+    // 默认的读缓冲区大小
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private final LineBuffer buffer;
+
+    // 跨越缓冲区边界的行会拼接到这里，按需扩容，因此行长度不受限制
+    private byte[] lineBuf = new byte[256];
+
+    // nextLineSlice() 复用的切片对象
+    private final Line slice = new Line();
+
+    // 分片读取时的结束偏移：起始位置超过该偏移的行不属于本分片
+    private long splitEnd = Long.MAX_VALUE;
+
     // 构造函数：继承 FSDataInputStream 必须实现这个构造器
     public MyHDFS(InputStream in) {
-        super(in);
+        this(in, DEFAULT_BUFFER_SIZE);
+    }
+
+    public MyHDFS(InputStream in, int bufferSize) {
+        this(new LineBuffer(in, bufferSize));
+    }
+
+    private MyHDFS(LineBuffer buffer) {
+        super(buffer);
+        this.buffer = buffer;
+    }
+
+    /**
+     * 打开文件用于按行读取。fs.defaultFS 为 file:// 时走内存映射的快速路径（LocalMappedInputStream），
+     * 跳过 Hadoop 本地文件系统的校验和流；HDFS 上仍使用 fs.open
+     */
+    public static MyHDFS open(FileSystem fs, Path path, int bufferSize) throws IOException {
+        if (fs instanceof LocalFileSystem) {
+            return new MyHDFS(new LocalMappedInputStream(((LocalFileSystem) fs).pathToFile(path)), bufferSize);
+        }
+        if (fs instanceof RawLocalFileSystem) {
+            return new MyHDFS(new LocalMappedInputStream(((RawLocalFileSystem) fs).pathToFile(path)), bufferSize);
+        }
+        return new MyHDFS(fs.open(path), bufferSize);
+    }
+
+    /**
+     * 按 open(fs, path, bufferSize) 的方式打开文件，并只读取其中的一个分片
+     */
+    public static MyHDFS openSplit(FileSystem fs, Path path, long start, long length, int bufferSize) throws IOException {
+        return split(open(fs, path, bufferSize), start, length);
     }
 
-    // 自定义逐行读取方法：每次读取一个字符，直到遇到换行符或文件结束
-    public static String readLine(BufferedReader reader) throws IOException {
-        char[] buffer = new char[1024];  // 存储读取字符的缓冲区
-        int bytesRead = -1;
-        int offset = 0;
+    /**
+     * 打开文件的一个分片 [start, start + length)，分片规则与 Hadoop TextInputFormat（LineRecordReader）一致：
+     *   start 不为 0 时，先跳过第一行（不完整的那一行由前一个分片负责读完）；
+     *   只要行的起始偏移不超过分片结束位置就读取该行，因此跨越结束位置的行由本分片完整读出。
+     * 这样 N 个相邻分片恰好覆盖每一行一次，可由 N 个线程并行扫描同一个大文件。
+     */
+    public static MyHDFS openSplit(FSDataInputStream in, long start, long length, int bufferSize) throws IOException {
+        return split(new MyHDFS(in, bufferSize), start, length);
+    }
 
-        // 循环读取每个字符，直到遇到 \n 或 EOF
-        while ((bytesRead = reader.read(buffer, offset, 1)) != -1) {
-            if (String.valueOf(buffer[offset]).equals("\n")) {
-                offset += 1;
-                break;
+    private static MyHDFS split(MyHDFS reader, long start, long length) throws IOException {
+        if (start != 0) {
+            reader.seek(start);
+            reader.nextLineSlice();
+        }
+        reader.splitEnd = start + length;
+        return reader;
+    }
+
+    /**
+     * 按行读取：在大块字节缓冲区中扫描 '\n'，返回不含行尾换行符（及 '\r'）的一行文本（UTF-8 解码），
+     * 读到文件末尾返回 null。
+     * （DataInputStream.readLine() 是 final 的，无法覆盖，所以取名 nextLine）
+     */
+    public String nextLine() throws IOException {
+        Line line = nextLineSlice();
+        return line == null ? null : line.toString();
+    }
+
+    /**
+     * 零拷贝按行读取：返回指向内部缓冲区的切片，不为每一行创建新的 String / byte[]。
+     * 返回的 Line 对象会被复用，内容只在下一次读取之前有效；读到文件末尾返回 null
+     */
+    public Line nextLineSlice() throws IOException {
+        if (buffer.getPos() > splitEnd) {
+            return null;
+        }
+        int lineLen = 0;
+        while (true) {
+            if (buffer.pos >= buffer.limit && buffer.fill() <= 0) {
+                // 文件结束：返回最后一行（没有换行符结尾），或 null
+                if (lineLen == 0) {
+                    return null;
+                }
+                return slice.set(lineBuf, 0, trimCR(lineBuf, 0, lineLen));
             }
-            offset += 1;
+
+            byte[] buf = buffer.buf;
+            int start = buffer.pos;
+            int end = buffer.limit;
+            int i = start;
+            while (i < end && buf[i] != '\n') {
+                i++;
+            }
+
+            if (i < end) {
+                buffer.pos = i + 1;
+                if (lineLen == 0) {
+                    // 整行都在缓冲区内，直接指向缓冲区，无需拷贝
+                    return slice.set(buf, start, trimCR(buf, start, i - start));
+                }
+                lineLen = appendToLine(lineLen, buf, start, i - start);
+                return slice.set(lineBuf, 0, trimCR(lineBuf, 0, lineLen));
+            }
+
+            // 本块中没有换行符：暂存到行缓冲区，继续读下一块
+            lineLen = appendToLine(lineLen, buf, start, end - start);
+            buffer.pos = end;
         }
+    }
 
-        // 如果读取到了字符内容，就返回拼接好的字符串
-        if (offset > 0) {
-            return new String(buffer, 0, offset);
+    private int appendToLine(int lineLen, byte[] src, int off, int len) {
+        if (lineLen + len > lineBuf.length) {
+            lineBuf = Arrays.copyOf(lineBuf, Math.max(lineBuf.length * 2, lineLen + len));
         }
+        System.arraycopy(src, off, lineBuf, lineLen, len);
+        return lineLen + len;
+    }
 
-        // 如果没有读取到任何字符，说明文件结束，返回 null
-        return null;
+    private static int trimCR(byte[] b, int off, int len) {
+        return len > 0 && b[off + len - 1] == '\r' ? len - 1 : len;
+    }
+
+    /**
+     * 一行内容的字节切片（可复用，仅在下一次读取前有效）
+     */
+    public static class Line {
+        private byte[] bytes;
+        private int offset;
+        private int length;
+
+        Line set(byte[] bytes, int offset, int length) {
+            this.bytes = bytes;
+            this.offset = offset;
+            this.length = length;
+            return this;
+        }
+
+        public byte[] getBytes() {
+            return bytes;
+        }
+
+        public int getOffset() {
+            return offset;
+        }
+
+        public int getLength() {
+            return length;
+        }
+
+        /**
+         * 判断该行是否包含指定的字节序列（按字节比较，不解码）
+         */
+        public boolean contains(byte[] pattern) {
+            outer:
+            for (int i = offset, last = offset + length - pattern.length; i <= last; i++) {
+                for (int j = 0; j < pattern.length; j++) {
+                    if (bytes[i + j] != pattern[j]) {
+                        continue outer;
+                    }
+                }
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return new String(bytes, offset, length, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * 位于 FSDataInputStream 与底层 HDFS 流之间的读缓冲区。
+     * 所有读取（包括继承来的 read()/read(byte[])）都经过它，因此按行读取与普通读取、seek/getPos 可以混用。
+     */
+    static class LineBuffer extends InputStream implements Seekable, PositionedReadable {
+        private final InputStream in;
+        byte[] buf;
+        int pos;
+        int limit;
+        // buf[0] 在文件中的偏移；始终满足：当前位置 = bufStart + pos，底层流位置 = bufStart + limit
+        long bufStart;
+
+        LineBuffer(InputStream in, int bufferSize) {
+            if (!(in instanceof Seekable) || !(in instanceof PositionedReadable)) {
+                throw new IllegalArgumentException("In is not an instance of Seekable or PositionedReadable");
+            }
+            this.in = in;
+            this.buf = new byte[bufferSize];
+            try {
+                this.bufStart = ((Seekable) in).getPos();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        // 丢弃缓冲区内容，使 bufStart 对齐到底层流的位置
+        private void discard() {
+            bufStart += limit;
+            pos = 0;
+            limit = 0;
+        }
+
+        // 读取下一块数据到缓冲区，返回读到的字节数，文件结束返回 -1
+        int fill() throws IOException {
+            discard();
+            int n = in.read(buf, 0, buf.length);
+            if (n > 0) {
+                limit = n;
+            }
+            return n;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (pos >= limit && fill() <= 0) {
+                return -1;
+            }
+            return buf[pos++] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            int available = limit - pos;
+            if (available <= 0) {
+                // 大块读取直接绕过缓冲区
+                if (len >= buf.length) {
+                    discard();
+                    int n = in.read(b, off, len);
+                    if (n > 0) {
+                        bufStart += n;
+                    }
+                    return n;
+                }
+                if (fill() <= 0) {
+                    return -1;
+                }
+                available = limit;
+            }
+            int n = Math.min(available, len);
+            System.arraycopy(buf, pos, b, off, n);
+            pos += n;
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            if (n <= 0) {
+                return 0;
+            }
+            int available = limit - pos;
+            if (n <= available) {
+                pos += (int) n;
+                return n;
+            }
+            discard();
+            long skipped = in.skip(n - available);
+            bufStart += skipped;
+            return available + skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (limit - pos) + in.available();
+        }
+
+        @Override
+        public void seek(long target) throws IOException {
+            // 目标位置仍在当前缓冲区内时只移动指针
+            if (target >= bufStart && target <= bufStart + limit) {
+                pos = (int) (target - bufStart);
+                return;
+            }
+            ((Seekable) in).seek(target);
+            bufStart = target;
+            pos = 0;
+            limit = 0;
+        }
+
+        @Override
+        public long getPos() {
+            return bufStart + pos;
+        }
+
+        @Override
+        public boolean seekToNewSource(long targetPos) throws IOException {
+            boolean found = ((Seekable) in).seekToNewSource(targetPos);
+            bufStart = targetPos;
+            pos = 0;
+            limit = 0;
+            return found;
+        }
+
+        @Override
+        public int read(long position, byte[] b, int off, int len) throws IOException {
+            return ((PositionedReadable) in).read(position, b, off, len);
+        }
+
+        @Override
+        public void readFully(long position, byte[] b, int off, int len) throws IOException {
+            ((PositionedReadable) in).readFully(position, b, off, len);
+        }
+
+        @Override
+        public void readFully(long position, byte[] b) throws IOException {
+            ((PositionedReadable) in).readFully(position, b);
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
     }
 
     // 读取并打印 HDFS 文件内容（逐行输出）
@@ -48,20 +355,16 @@ public class MyHDFS extends FSDataInputStream {
         FileSystem fs = FileSystem.get(config);  // 获取 HDFS 文件系统对象
         Path path = new Path(hdfsFilePath);      // 指定读取的文件路径
 
-        // 打开文件输入流并用 BufferedReader 包装以便逐行读取
-        FSDataInputStream inputStream = fs.open(path);
-        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream));
+        // 打开文件输入流并用 MyHDFS 包装以便逐行读取
+        try (MyHDFS reader = open(fs, path, DEFAULT_BUFFER_SIZE)) {
+            String line;
 
-        String line;
-
-        // 循环读取每一行，并输出到终端
-        while ((line = MyHDFS.readLine(reader)) != null) {
-            System.out.println("<MyHDFS> " + line);
+            // 循环读取每一行，并输出到终端
+            while ((line = reader.nextLine()) != null) {
+                System.out.println("<MyHDFS> " + line);
+            }
         }
 
-        // 关闭流资源
-        reader.close();
-        inputStream.close();
         fs.close();
     }
 
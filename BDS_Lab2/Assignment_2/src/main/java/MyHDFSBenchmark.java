@@ -0,0 +1,192 @@
+/**
+ * 按行读取性能对比小工具（非 JMH，直接 main 运行，避免给实验工程引入额外依赖）。
+ *
+ * 默认在本地 file:// 文件系统上生成测试文件；第二个参数可指定 fs.defaultFS（如 hdfs://localhost:9000）。
+ * 用法：
+ *   java -Dsize=256m -cp build/libs/MyHDFS.jar MyHDFSBenchmark readline [fs.defaultFS]
+ *   java -Dsize=4g -Dthreads=1,2,4,8 -cp build/libs/MyHDFS.jar MyHDFSBenchmark split [fs.defaultFS]
+ */
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+public class MyHDFSBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        String scenario = args.length > 0 ? args[0] : "readline";
+        String defaultFS = args.length > 1 ? args[1] : "file:///";
+
+        Configuration config = new Configuration();
+        config.set("fs.defaultFS", defaultFS);
+        FileSystem fs = FileSystem.newInstance(config);
+        Path baseDir = new Path("/tmp/myhdfs-bench-" + System.currentTimeMillis());
+
+        try {
+            switch (scenario) {
+                case "readline":
+                    benchReadLine(fs, baseDir, parseSize(System.getProperty("size", "256m")));
+                    break;
+                case "split":
+                    benchSplit(fs, baseDir, parseSize(System.getProperty("size", "1g")),
+                            System.getProperty("threads", "1,2,4,8"));
+                    break;
+                default:
+                    System.out.println("<MyHDFS> 未知的测试场景: " + scenario);
+            }
+        } finally {
+            fs.delete(baseDir, true);
+            fs.close();
+        }
+    }
+
+    /**
+     * 对比原先逐字符的 readLine(BufferedReader)、BufferedReader.readLine 与 MyHDFS.nextLine/nextLineSlice
+     */
+    private static void benchReadLine(FileSystem fs, Path baseDir, long bytes) throws IOException {
+        Path file = new Path(baseDir, "lines.txt");
+        writeTextFile(fs, file, bytes);
+
+        measure("old readLine(char by char)", bytes, () -> {
+            long n = 0;
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(fs.open(file), StandardCharsets.UTF_8))) {
+                while (oldReadLine(reader) != null) {
+                    n++;
+                }
+            }
+            return n;
+        });
+        measure("BufferedReader.readLine", bytes, () -> {
+            long n = 0;
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(fs.open(file), StandardCharsets.UTF_8))) {
+                while (reader.readLine() != null) {
+                    n++;
+                }
+            }
+            return n;
+        });
+        measure("MyHDFS.nextLine", bytes, () -> {
+            long n = 0;
+            try (MyHDFS reader = new MyHDFS(fs.open(file))) {
+                while (reader.nextLine() != null) {
+                    n++;
+                }
+            }
+            return n;
+        });
+        measure("MyHDFS.nextLineSlice", bytes, () -> {
+            long n = 0;
+            try (MyHDFS reader = new MyHDFS(fs.open(file))) {
+                while (reader.nextLineSlice() != null) {
+                    n++;
+                }
+            }
+            return n;
+        });
+        // MyHDFS.open 在本地文件系统上走内存映射快速路径，在 HDFS 上与上一项相同
+        measure("MyHDFS.open + nextLineSlice", bytes, () -> {
+            long n = 0;
+            try (MyHDFS reader = MyHDFS.open(fs, file, MyHDFS.DEFAULT_BUFFER_SIZE)) {
+                while (reader.nextLineSlice() != null) {
+                    n++;
+                }
+            }
+            return n;
+        });
+    }
+
+    /**
+     * 用 ParallelLineScan 在不同线程数下并行扫描同一个大文件（行数统计 + 字符串匹配），观察加速比
+     */
+    private static void benchSplit(FileSystem fs, Path baseDir, long bytes, String threads) throws IOException {
+        Path file = new Path(baseDir, "split.txt");
+        writeTextFile(fs, file, bytes);
+        ParallelLineScan.scan(fs, file, 1, "abc"); // 预热
+
+        double baseline = 0;
+        for (String t : threads.split(",")) {
+            int n = Integer.parseInt(t.trim());
+            long start = System.nanoTime();
+            ParallelLineScan.Result result = ParallelLineScan.scan(fs, file, n, "abc");
+            double seconds = (System.nanoTime() - start) / 1e9;
+            if (baseline == 0) {
+                baseline = seconds;
+            }
+            System.out.printf("<MyHDFS> threads=%-3d lines=%d matches=%d  %8.1f MB/s  speedup %.2fx%n",
+                    n, result.getLines(), result.getMatches(), (bytes / 1048576.0) / seconds, baseline / seconds);
+        }
+    }
+
+    // 原先的实现：每次读一个字符，固定 1024 字符缓冲区
+    private static String oldReadLine(BufferedReader reader) throws IOException {
+        char[] buffer = new char[1024];
+        int offset = 0;
+        while (reader.read(buffer, offset, 1) != -1) {
+            if (String.valueOf(buffer[offset]).equals("\n")) {
+                offset += 1;
+                break;
+            }
+            offset += 1;
+        }
+        return offset > 0 ? new String(buffer, 0, offset) : null;
+    }
+
+    private interface LineTask {
+        long run() throws IOException;
+    }
+
+    private static void measure(String name, long bytes, LineTask task) throws IOException {
+        task.run(); // 预热
+        com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long tid = Thread.currentThread().getId();
+        long allocBefore = mx.getThreadAllocatedBytes(tid);
+        long start = System.nanoTime();
+        long lines = task.run();
+        long elapsed = System.nanoTime() - start;
+        long allocated = mx.getThreadAllocatedBytes(tid) - allocBefore;
+        System.out.printf("<MyHDFS> %-28s %10.1f MB/s %12.0f lines/s  allocated %8.1f B/line%n",
+                name, (bytes / 1048576.0) / (elapsed / 1e9), lines / (elapsed / 1e9), (double) allocated / lines);
+    }
+
+    // 生成随机长度（10~200 字符，低于旧实现的 1024 上限）的 ASCII 文本行
+    static void writeTextFile(FileSystem fs, Path path, long bytes) throws IOException {
+        Random random = new Random(42);
+        byte[] line = new byte[256];
+        try (FSDataOutputStream out = fs.create(path, true)) {
+            long written = 0;
+            while (written < bytes) {
+                int len = 10 + random.nextInt(190);
+                for (int i = 0; i < len; i++) {
+                    line[i] = (byte) ('a' + random.nextInt(26));
+                }
+                line[len] = '\n';
+                out.write(line, 0, len + 1);
+                written += len + 1;
+            }
+        }
+    }
+
+    static long parseSize(String size) {
+        String s = size.toLowerCase();
+        long unit = 1;
+        if (s.endsWith("k")) {
+            unit = 1024L;
+        } else if (s.endsWith("m")) {
+            unit = 1024L * 1024;
+        } else if (s.endsWith("g")) {
+            unit = 1024L * 1024 * 1024;
+        }
+        if (unit > 1) {
+            s = s.substring(0, s.length() - 1);
+        }
+        return Long.parseLong(s) * unit;
+    }
+}
@@ -0,0 +1,127 @@
+/**
+ * 并行按行扫描一个大文件：统计行数，以及包含指定字符串的行数（类似 wc -l / grep -c）。
+ *
+ * 文件按字节切成若干分片（默认每个线程 4 个，便于负载均衡），每个分片由 MyHDFS.openSplit 打开，
+ * 各自独立的输入流在线程池中并行读取，分片边界的处理与 Hadoop TextInputFormat 相同。
+ * 匹配直接在字节切片上进行（nextLineSlice），不为每一行创建 String。
+ *
+ * 用法：
+ *   java -cp build/libs/MyHDFS.jar ParallelLineScan <文件路径> [线程数] [匹配字符串] [fs.defaultFS]
+ */
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class ParallelLineScan {
+
+    // 每个线程分到的分片数
+    private static final int SPLITS_PER_THREAD = 4;
+
+    /**
+     * 扫描结果
+     */
+    public static class Result {
+        private final long lines;
+        private final long matches;
+
+        Result(long lines, long matches) {
+            this.lines = lines;
+            this.matches = matches;
+        }
+
+        public long getLines() {
+            return lines;
+        }
+
+        public long getMatches() {
+            return matches;
+        }
+    }
+
+    /**
+     * 并行扫描文件
+     * @param pattern 为 null 时只统计行数
+     */
+    public static Result scan(FileSystem fs, Path file, int threads, String pattern) throws IOException {
+        long fileLen = fs.getFileStatus(file).getLen();
+        byte[] needle = pattern == null ? null : pattern.getBytes(StandardCharsets.UTF_8);
+        int splits = Math.max(1, threads * SPLITS_PER_THREAD);
+        long splitSize = Math.max(1, (fileLen + splits - 1) / splits);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (long start = 0; start < fileLen; start += splitSize) {
+                long splitStart = start;
+                long length = Math.min(splitSize, fileLen - start);
+                futures.add(pool.submit(() -> scanSplit(fs, file, splitStart, length, needle)));
+            }
+
+            long lines = 0;
+            long matches = 0;
+            for (Future<long[]> future : futures) {
+                long[] counts = future.get();
+                lines += counts[0];
+                matches += counts[1];
+            }
+            return new Result(lines, matches);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("<MyHDFS> 扫描被中断", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("<MyHDFS> 扫描出错", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static long[] scanSplit(FileSystem fs, Path file, long start, long length, byte[] needle) throws IOException {
+        long lines = 0;
+        long matches = 0;
+        try (MyHDFS reader = MyHDFS.openSplit(fs, file, start, length, MyHDFS.DEFAULT_BUFFER_SIZE)) {
+            MyHDFS.Line line;
+            while ((line = reader.nextLineSlice()) != null) {
+                lines++;
+                if (needle != null && line.contains(needle)) {
+                    matches++;
+                }
+            }
+        }
+        return new long[]{lines, matches};
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.out.println("<MyHDFS> 用法: ParallelLineScan <文件路径> [线程数] [匹配字符串] [fs.defaultFS]");
+            return;
+        }
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        String pattern = args.length > 2 ? args[2] : null;
+
+        Configuration config = new Configuration();
+        config.set("fs.defaultFS", args.length > 3 ? args[3] : "hdfs://localhost:9000");
+        try (FileSystem fs = FileSystem.newInstance(config)) {
+            long start = System.nanoTime();
+            Result result = scan(fs, new Path(args[0]), threads, pattern);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.println("<MyHDFS> 行数: " + result.getLines());
+            if (pattern != null) {
+                System.out.println("<MyHDFS> 包含 \"" + pattern + "\" 的行数: " + result.getMatches());
+            }
+            System.out.printf("<MyHDFS> 线程数: %d, 耗时: %.2f s%n", threads, seconds);
+        }
+    }
+}
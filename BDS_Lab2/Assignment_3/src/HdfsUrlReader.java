@@ -0,0 +1,270 @@
+/**
+ * 基于 java.net.URL 的 HDFS 读取服务。
+ *
+ * 与直接注册 FsUrlStreamHandlerFactory 相比：
+ *   1. 注册的 URL Handler 按 scheme + authority 缓存 FileSystem，同一个 NameNode 的所有 URL 共用一个客户端，
+ *      打开 URL 时不再重新建立连接；
+ *   2. 读取时从一个直接内存 ByteBuffer 池中借用缓冲区，底层流支持 ByteBufferReadable 时直接读入，
+ *      读完归还复用，缓冲区大小可配置；
+ *   3. readAll() 在线程池上并发读取多个 hdfs:// URL。
+ * 若配置了 dfs.domain.socket.path，则同时开启 HDFS 短路本地读（dfs.client.read.shortcircuit）。
+ *
+ * JVM 中 URL.setURLStreamHandlerFactory 只能调用一次，请在访问任何 hdfs:// URL 之前调用 install()。
+ */
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.ByteBufferReadable;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.FsUrlStreamHandlerFactory;
+import org.apache.hadoop.fs.Path;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+public class HdfsUrlReader implements Closeable {
+
+    // 按 scheme://authority/ 缓存的 FileSystem，供所有 URL 连接共享
+    private static final Map<String, FileSystem> FS_CACHE = new ConcurrentHashMap<>();
+
+    private static volatile Configuration handlerConf;
+
+    /**
+     * 注册带 FileSystem 缓存的 URL Handler（每个 JVM 只需一次）。
+     * 重复调用时更新配置，并关闭按旧配置创建的 FileSystem，之后打开的 URL 按新配置重新创建；
+     * 旧 FileSystem 上尚未读完的流会因此失败，应在读取结束后再更换配置
+     */
+    public static synchronized void install(Configuration config) {
+        Configuration conf = new Configuration(config);
+        if (conf.get("dfs.domain.socket.path") != null) {
+            conf.setBoolean("dfs.client.read.shortcircuit", true);
+        }
+        boolean first = handlerConf == null;
+        // 与 fileSystemFor 使用同一把锁，保证更换配置后不会再按旧配置创建 FileSystem
+        synchronized (FS_CACHE) {
+            handlerConf = conf;
+            if (!first) {
+                closeCachedFileSystems();
+            }
+        }
+        if (first) {
+            try {
+                URL.setURLStreamHandlerFactory(new CachingHandlerFactory(conf));
+            } catch (Error e) {
+                // 如果已经注册过，第二次设置会抛 Error，我们忽略这个异常
+                System.err.println("<MyHDFS> URL handler 已注册，跳过重复设置");
+            }
+        }
+    }
+
+    /**
+     * 关闭缓存的所有 FileSystem
+     */
+    public static void closeCachedFileSystems() {
+        List<FileSystem> closing;
+        synchronized (FS_CACHE) {
+            closing = new ArrayList<>(FS_CACHE.values());
+            FS_CACHE.clear();
+        }
+        for (FileSystem fs : closing) {
+            try {
+                fs.close();
+            } catch (IOException e) {
+                System.out.println("<MyHDFS> 关闭文件系统出错: " + e.getMessage());
+            }
+        }
+    }
+
+    private static FileSystem fileSystemFor(URL url) throws IOException {
+        String key = url.getProtocol() + "://" + (url.getAuthority() == null ? "" : url.getAuthority()) + "/";
+        FileSystem fs = FS_CACHE.get(key);
+        if (fs != null) {
+            return fs;
+        }
+        synchronized (FS_CACHE) {
+            fs = FS_CACHE.get(key);
+            if (fs == null) {
+                fs = FileSystem.newInstance(URI.create(key), handlerConf);
+                FS_CACHE.put(key, fs);
+            }
+            return fs;
+        }
+    }
+
+    /**
+     * 沿用 FsUrlStreamHandlerFactory 判断哪些协议由 Hadoop 处理，但返回带 FileSystem 缓存的 Handler
+     */
+    private static class CachingHandlerFactory extends FsUrlStreamHandlerFactory {
+        private final URLStreamHandler handler = new CachingHandler();
+
+        CachingHandlerFactory(Configuration conf) {
+            super(conf);
+        }
+
+        @Override
+        public URLStreamHandler createURLStreamHandler(String protocol) {
+            return super.createURLStreamHandler(protocol) == null ? null : handler;
+        }
+    }
+
+    private static class CachingHandler extends URLStreamHandler {
+        @Override
+        protected URLConnection openConnection(URL url) {
+            return new CachingConnection(url);
+        }
+    }
+
+    private static class CachingConnection extends URLConnection {
+        private FSDataInputStream in;
+
+        CachingConnection(URL url) {
+            super(url);
+        }
+
+        @Override
+        public void connect() throws IOException {
+            if (in != null) {
+                return;
+            }
+            try {
+                in = fileSystemFor(url).open(new Path(url.toURI()));
+            } catch (URISyntaxException e) {
+                throw new IOException(e);
+            }
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            connect();
+            return in;
+        }
+    }
+
+    /**
+     * 逐块处理读取结果的回调；buffer 在回调返回后会被复用，不能保存引用
+     */
+    public interface ChunkConsumer {
+        void accept(URL url, ByteBuffer buffer) throws IOException;
+    }
+
+    private final int bufferSize;
+    private final BlockingQueue<ByteBuffer> bufferPool;
+    private final ExecutorService pool;
+
+    /**
+     * @param bufferSize 每个直接内存缓冲区的大小
+     * @param threads    readAll 并发读取的线程数，同时也是缓冲区池的容量
+     */
+    public HdfsUrlReader(int bufferSize, int threads) {
+        this.bufferSize = bufferSize;
+        this.bufferPool = new ArrayBlockingQueue<>(threads);
+        this.pool = Executors.newFixedThreadPool(threads);
+    }
+
+    private ByteBuffer borrowBuffer() {
+        ByteBuffer buffer = bufferPool.poll();
+        return buffer != null ? buffer : ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    private void returnBuffer(ByteBuffer buffer) {
+        buffer.clear();
+        bufferPool.offer(buffer);
+    }
+
+    /**
+     * 读取一个 URL，逐块交给 consumer，返回读取的字节数
+     */
+    public long read(URL url, ChunkConsumer consumer) throws IOException {
+        ByteBuffer buffer = borrowBuffer();
+        long total = 0;
+        try (InputStream in = url.openStream()) {
+            boolean byteBufferReadable = in instanceof FSDataInputStream
+                    && ((FSDataInputStream) in).getWrappedStream() instanceof ByteBufferReadable;
+            byte[] heap = byteBufferReadable ? null : new byte[bufferSize];
+            while (true) {
+                buffer.clear();
+                int n;
+                if (byteBufferReadable) {
+                    n = ((FSDataInputStream) in).read(buffer);
+                } else {
+                    n = in.read(heap, 0, heap.length);
+                    if (n > 0) {
+                        buffer.put(heap, 0, n);
+                    }
+                }
+                if (n < 0) {
+                    break;
+                }
+                buffer.flip();
+                consumer.accept(url, buffer);
+                total += n;
+            }
+        } finally {
+            returnBuffer(buffer);
+        }
+        return total;
+    }
+
+    /**
+     * 读取一个 URL 并写入输出通道（不会关闭该通道）
+     */
+    public long read(URL url, WritableByteChannel out) throws IOException {
+        return read(url, (u, buffer) -> {
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+        });
+    }
+
+    /**
+     * 读取一个 URL 并写入输出流（不会关闭该输出流）
+     */
+    public long read(URL url, OutputStream out) throws IOException {
+        return read(url, Channels.newChannel(out));
+    }
+
+    /**
+     * 在线程池上并发读取多个 URL（consumer 会在多个线程中被调用），返回读取的总字节数
+     */
+    public long readAll(List<URL> urls, ChunkConsumer consumer) throws IOException {
+        List<Future<Long>> futures = new ArrayList<>();
+        for (URL url : urls) {
+            futures.add(pool.submit(() -> read(url, consumer)));
+        }
+        long total = 0;
+        try {
+            for (Future<Long> future : futures) {
+                total += future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("<MyHDFS> 读取被中断", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("<MyHDFS> 读取出错", e.getCause());
+        }
+        return total;
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+        bufferPool.clear();
+    }
+}
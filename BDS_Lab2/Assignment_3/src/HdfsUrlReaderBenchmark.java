@@ -0,0 +1,114 @@
+/**
+ * HdfsUrlReader 吞吐量对比小工具（直接 main 运行）。
+ *
+ * 在目标文件系统上生成“大量小文件”和“少量大文件”两组数据，分别对比：
+ *   旧方式 —— 逐个打开 URL 对应的文件，IOUtils.copyBytes 4096 字节缓冲区顺序读取；
+ *   新方式 —— HdfsUrlReader 缓存 FileSystem + 池化直接内存缓冲区 + 多线程并发读取。
+ * 用法：
+ *   java -cp MyHDFS.jar:$(hadoop classpath) HdfsUrlReaderBenchmark [hdfs://localhost:9000] [线程数] [小文件数] [大文件MB]
+ */
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.IOUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class HdfsUrlReaderBenchmark {
+
+    private static final OutputStream NULL_STREAM = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+
+    public static void main(String[] args) throws Exception {
+        String fsUri = args.length > 0 ? args[0] : "hdfs://localhost:9000";
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        int smallFiles = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        int largeMB = args.length > 3 ? Integer.parseInt(args[3]) : 512;
+
+        Configuration config = new Configuration();
+        config.set("fs.defaultFS", fsUri);
+        HdfsUrlReader.install(config);
+
+        FileSystem fs = FileSystem.newInstance(URI.create(fsUri), config);
+        Path baseDir = new Path("/tmp/myhdfs-url-bench-" + System.currentTimeMillis());
+        try {
+            List<URL> small = writeFiles(fs, new Path(baseDir, "small"), smallFiles, 16 * 1024);
+            List<URL> large = writeFiles(fs, new Path(baseDir, "large"), 4, largeMB * 1024L * 1024);
+
+            try (HdfsUrlReader reader = new HdfsUrlReader(1024 * 1024, threads)) {
+                System.out.println("<MyHDFS> " + smallFiles + " 个 16KB 小文件：");
+                compare(config, reader, small);
+                System.out.println("<MyHDFS> 4 个 " + largeMB + "MB 大文件：");
+                compare(config, reader, large);
+            }
+        } finally {
+            fs.delete(baseDir, true);
+            fs.close();
+            HdfsUrlReader.closeCachedFileSystems();
+        }
+    }
+
+    private static void compare(Configuration config, HdfsUrlReader reader, List<URL> urls) throws Exception {
+        readOldStyle(config, urls); // 预热
+        long start = System.nanoTime();
+        long bytes = readOldStyle(config, urls);
+        report("FileSystem.get + copyBytes(4096)", urls.size(), bytes, System.nanoTime() - start);
+
+        reader.readAll(urls, (url, buffer) -> { }); // 预热
+        start = System.nanoTime();
+        bytes = reader.readAll(urls, (url, buffer) -> { });
+        report("HdfsUrlReader.readAll", urls.size(), bytes, System.nanoTime() - start);
+    }
+
+    // 旧方式：与 FsUrlConnection 相同，每次打开都 FileSystem.get(uri) 再 open，4096 字节缓冲区顺序拷贝
+    private static long readOldStyle(Configuration config, List<URL> urls) throws Exception {
+        long total = 0;
+        for (URL url : urls) {
+            URI uri = url.toURI();
+            FileSystem fs = FileSystem.get(uri, config);
+            try (FSDataInputStream in = fs.open(new Path(uri))) {
+                IOUtils.copyBytes(in, NULL_STREAM, 4096, false);
+                total += in.getPos();
+            }
+        }
+        return total;
+    }
+
+    private static List<URL> writeFiles(FileSystem fs, Path dir, int count, long size) throws IOException {
+        byte[] chunk = new byte[(int) Math.min(size, 1024 * 1024)];
+        new Random(42).nextBytes(chunk);
+        List<URL> urls = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Path file = new Path(dir, "f" + i);
+            try (FSDataOutputStream out = fs.create(file, true)) {
+                for (long written = 0; written < size; written += chunk.length) {
+                    out.write(chunk, 0, (int) Math.min(chunk.length, size - written));
+                }
+            }
+            urls.add(fs.makeQualified(file).toUri().toURL());
+        }
+        return urls;
+    }
+
+    private static void report(String name, int files, long bytes, long nanos) {
+        double seconds = nanos / 1e9;
+        System.out.printf("<MyHDFS>   %-34s %10.0f files/s %10.1f MB/s%n",
+                name, files / seconds, (bytes / 1048576.0) / seconds);
+    }
+}
@@ -6,22 +6,13 @@
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.*;
-import org.apache.hadoop.io.IOUtils;
 
-import java.io.InputStream;
 import java.net.URL;
 
 public class MyHDFS {
 
-    // 注册 URL Handler，使 Java 能识别 "hdfs://" 协议
-    static {
-        try {
-            URL.setURLStreamHandlerFactory(new FsUrlStreamHandlerFactory());
-        } catch (Error e) {
-            // 如果已经注册过，第二次设置会抛 Error，我们忽略这个异常
-            System.err.println("<MyHDFS> URL handler 已注册，跳过重复设置");
-        }
-    }
+    // 读取缓冲区大小
+    private static final int BUFFER_SIZE = 1024 * 1024;
 
     public static void main(String[] args) {
         // 本地文件路径
@@ -40,6 +31,9 @@ public class MyHDFS {
             config.addResource(new Path("/usr/local/hadoop/etc/hadoop/core-site.xml"));
             config.addResource(new Path("/usr/local/hadoop/etc/hadoop/hdfs-site.xml"));
 
+            // 注册 URL Handler，使 Java 能识别 "hdfs://" 协议（按 NameNode 缓存 FileSystem，代替 FsUrlStreamHandlerFactory）
+            HdfsUrlReader.install(config);
+
             // 获取 HDFS 文件系统对象
             FileSystem fs = FileSystem.get(config);
 
@@ -50,14 +44,14 @@ public class MyHDFS {
             System.out.println("<MyHDFS> 已将本地文件上传至 HDFS: " + hdfsFilePath);
 
             // 使用 URL + HDFS 协议打开文件（注意：必须以 hdfs:// 开头）
-            InputStream inputStream = new URL("hdfs://localhost:9000" + hdfsFilePath).openStream();
+            URL url = new URL("hdfs://localhost:9000" + hdfsFilePath);
             System.out.println("\n<MyHDFS> 正在读取文件内容：");
 
-            // 将输入流内容复制到标准输出（System.out），缓冲区大小 4096
-            IOUtils.copyBytes(inputStream, System.out, 4096, false);
-
-            // 关闭输入流
-            inputStream.close();
+            // 将文件内容复制到标准输出（System.out），使用池化的直接内存缓冲区
+            try (HdfsUrlReader reader = new HdfsUrlReader(BUFFER_SIZE, 1)) {
+                reader.read(url, System.out);
+            }
+            System.out.flush();
             System.out.println("\n<MyHDFS> 文件读取完成。");
 
             // 删除 HDFS 上的该文件，实现环境还原
@@ -72,6 +66,7 @@ public class MyHDFS {
 
             // 关闭文件系统
             fs.close();
+            HdfsUrlReader.closeCachedFileSystems();
 
         } catch (Exception e) {
             // 捕获所有异常并打印
@@ -0,0 +1,111 @@
+/**
+ * 基于 AsyncConnection / AsyncTable 的非阻塞读写。
+ *
+ * 同步的 Table.put / get / delete 在 RPC 返回前一直占用调用线程，并发 N 个请求就需要 N 个线程。
+ * 这里每个操作立即返回 CompletableFuture，RPC 由 HBase 客户端的 Netty 事件循环完成，
+ * 少量线程即可同时保持成千上万个未完成的请求。
+ * 未完成的请求数由 myhbase.async.max.inflight 限制：达到上限时发起请求的线程阻塞，
+ * 直到有请求完成（背压），避免无限制地堆积请求和内存。
+ * future 在 HBase 客户端的回调线程中完成，不要在 thenApply 等回调里再同步发起新的请求，否则达到上限时会阻塞回调线程；
+ * 需要依次发起多个请求时用 submit 包住整条 thenCompose 链，链中的后续请求经 table() 发起。
+ */
+
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.AdvancedScanResultConsumer;
+import org.apache.hadoop.hbase.client.AsyncConnection;
+import org.apache.hadoop.hbase.client.AsyncTable;
+import org.apache.hadoop.hbase.client.Delete;
+import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.Scan;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+public class HBaseAsyncOps {
+
+    public static final String MAX_IN_FLIGHT_KEY = "myhbase.async.max.inflight";
+    public static final int DEFAULT_MAX_IN_FLIGHT = 1000;
+
+    private final AsyncConnection connection;
+    private final int maxInFlight;
+    private final Semaphore permits;
+
+    public HBaseAsyncOps(HBaseClient client) throws IOException {
+        this(client, client.getConfiguration().getInt(MAX_IN_FLIGHT_KEY, DEFAULT_MAX_IN_FLIGHT));
+    }
+
+    public HBaseAsyncOps(HBaseClient client, int maxInFlight) throws IOException {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("未完成请求数上限必须大于 0: " + maxInFlight);
+        }
+        this.connection = client.getAsyncConnection();
+        this.maxInFlight = maxInFlight;
+        this.permits = new Semaphore(maxInFlight);
+    }
+
+    public CompletableFuture<Void> put(String tableName, Put put) {
+        return submit(() -> table(tableName).put(put));
+    }
+
+    public CompletableFuture<Void> delete(String tableName, Delete delete) {
+        return submit(() -> table(tableName).delete(delete));
+    }
+
+    public CompletableFuture<Result> get(String tableName, Get get) {
+        return submit(() -> table(tableName).get(get));
+    }
+
+    /**
+     * 扫描并一次性返回全部结果，只适合结果集较小的扫描
+     */
+    public CompletableFuture<List<Result>> scanAll(String tableName, Scan scan) {
+        return submit(() -> table(tableName).scanAll(scan));
+    }
+
+    /**
+     * 表 tableName 的 AsyncTable；直接用它发起的请求不占用许可，只应在 submit 的请求链中使用
+     */
+    public AsyncTable<AdvancedScanResultConsumer> table(String tableName) {
+        return connection.getTable(TableName.valueOf(tableName));
+    }
+
+    /**
+     * 取得一个许可后发起请求，请求完成（成功或失败）时归还许可。
+     * request 可以用 thenCompose 串联多个经 table() 发起的请求，整条链只占一个许可，回调中不会阻塞
+     */
+    public <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> request) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            CompletableFuture<T> failed = new CompletableFuture<>();
+            failed.completeExceptionally(new InterruptedIOException("等待发起异步请求时被中断"));
+            return failed;
+        }
+        CompletableFuture<T> future;
+        try {
+            future = request.get();
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+        return future.whenComplete((result, error) -> permits.release());
+    }
+
+    /**
+     * 当前未完成的请求数
+     */
+    public int getInFlight() {
+        return maxInFlight - permits.availablePermits();
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+}
@@ -0,0 +1,155 @@
+/**
+ * 线程安全的 HBase 客户端门面。
+ *
+ * Connection 是重量级对象：创建时要连接 ZooKeeper、定位 hbase:meta，并维护到各 RegionServer 的连接和线程池；
+ * 而 Table、Admin 是轻量级对象，但不是线程安全的。
+ * 因此整个进程只持有一个 Connection，每次操作从它取出一个新的 Table / Admin，用完即关。
+ * shared() 返回进程级共享实例，并注册 JVM 关闭钩子，保证退出时连接被释放。
+ * 需要非阻塞调用时，getAsyncConnection() 按需创建一个同样共享的 AsyncConnection。
+ */
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.HBaseConfiguration;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Admin;
+import org.apache.hadoop.hbase.client.AsyncConnection;
+import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.client.ConnectionFactory;
+import org.apache.hadoop.hbase.client.Table;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ExecutionException;
+
+public class HBaseClient implements Closeable {
+
+    private static final Logger MY_LOGGER = LoggerFactory.getLogger("my.own.logger");
+
+    private static HBaseClient shared;
+    private static boolean hookRegistered;
+
+    /**
+     * 对 Admin 执行操作的回调
+     */
+    public interface AdminCallback<T> {
+        T apply(Admin admin) throws IOException;
+    }
+
+    private final Configuration configuration;
+    private final Connection connection;
+    private volatile AsyncConnection asyncConnection;
+
+    public HBaseClient(Configuration configuration) throws IOException {
+        this.configuration = configuration;
+        this.connection = ConnectionFactory.createConnection(configuration);
+    }
+
+    /**
+     * 与原 init() 相同的默认配置
+     */
+    public static Configuration defaultConfiguration() {
+        Configuration configuration = HBaseConfiguration.create();
+        configuration.set("hbase.rootdir", "hdfs://localhost:9000/hbase");
+        return configuration;
+    }
+
+    /**
+     * 获取进程级共享的客户端（首次调用时创建连接）
+     */
+    public static synchronized HBaseClient shared() throws IOException {
+        if (shared == null || shared.connection.isClosed()) {
+            shared = new HBaseClient(defaultConfiguration());
+            if (!hookRegistered) {
+                Runtime.getRuntime().addShutdownHook(new Thread(HBaseClient::closeShared, "hbase-client-shutdown"));
+                hookRegistered = true;
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * 关闭共享客户端；之后再调用 shared() 会重新建立连接
+     */
+    public static synchronized void closeShared() {
+        if (shared != null) {
+            shared.close();
+            shared = null;
+        }
+    }
+
+    public Configuration getConfiguration() {
+        return configuration;
+    }
+
+    public Connection getConnection() {
+        return connection;
+    }
+
+    /**
+     * 共享的 AsyncConnection（首次调用时创建，与 Connection 一起关闭）
+     */
+    public AsyncConnection getAsyncConnection() throws IOException {
+        AsyncConnection async = asyncConnection;
+        if (async != null) {
+            return async;
+        }
+        synchronized (this) {
+            if (asyncConnection == null) {
+                try {
+                    asyncConnection = ConnectionFactory.createAsyncConnection(configuration).get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("创建异步连接被中断");
+                } catch (ExecutionException e) {
+                    throw new IOException("创建异步连接失败", e.getCause());
+                }
+            }
+            return asyncConnection;
+        }
+    }
+
+    /**
+     * 取得一个新的 Table（非线程安全，调用方负责关闭）
+     */
+    public Table table(String tableName) throws IOException {
+        return connection.getTable(TableName.valueOf(tableName));
+    }
+
+    /**
+     * 取得一个新的 Admin（非线程安全，调用方负责关闭）
+     */
+    public Admin admin() throws IOException {
+        return connection.getAdmin();
+    }
+
+    /**
+     * 打开 Admin、执行回调、关闭 Admin
+     */
+    public <T> T withAdmin(AdminCallback<T> callback) throws IOException {
+        try (Admin admin = admin()) {
+            return callback.apply(admin);
+        }
+    }
+
+    @Override
+    public void close() {
+        // 分别关闭，异步连接关闭失败时也要释放 Connection
+        if (asyncConnection != null) {
+            try {
+                asyncConnection.close();
+            } catch (IOException e) {
+                MY_LOGGER.error("关闭异步连接失败！", e);
+            }
+        }
+        try {
+            if (!connection.isClosed()) {
+                connection.close();
+            }
+        } catch (IOException e) {
+            MY_LOGGER.error("关闭连接失败！", e);
+        }
+    }
+}
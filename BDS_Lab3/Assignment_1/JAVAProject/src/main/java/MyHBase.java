@@ -6,103 +6,199 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.core.config.Configurator;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 public class MyHBase {
     // 自定义业务日志，名称为 "my.own.logger"
     private static final Logger MY_LOGGER = LoggerFactory.getLogger("my.own.logger");
-    // HBase API 相关的静态成员
+    // main 演示导出时在日志中显示的行数
+    private static final int EXPORT_SAMPLE_LINES = 5;
+    // HBase API 相关的静态成员：整个进程共用一个连接，由 HBaseClient 管理
     public static Configuration configuration;
     public static Connection connection;
+    /**
+     * @deprecated 保留给直接使用该字段的旧代码，由共享连接创建，close() 时关闭；新代码请在需要时通过
+     *             HBaseClient.admin() 获取并用完关闭
+     */
+    @Deprecated
     public static Admin admin;
+    private static HBaseClient client;
+    // 异步读写，首次调用 *Async 方法时创建
+    private static HBaseAsyncOps async;
 
     // 初始化 HBase 连接，并设置 Hadoop、HBase、ZK 的日志级别为 ERROR，减少不必要的日志输出
-    public static void init() {
+    // 连接只在第一次调用时建立，之后重复调用直接返回
+    public static synchronized void init() {
+        if (client != null) {
+            return;
+        }
         Configurator.setAllLevels("org.apache.hadoop", Level.ERROR);
         Configurator.setAllLevels("org.apache.zookeeper", Level.ERROR);
         Configurator.setAllLevels("org.apache.hadoop.hbase", Level.ERROR);
         Configurator.setAllLevels("my.own.logger", Level.INFO);
         //Configurator.setRootLevel(Level.ERROR);
-        configuration = HBaseConfiguration.create();
-        configuration.set("hbase.rootdir", "hdfs://localhost:9000/hbase");
         try {
-            connection = ConnectionFactory.createConnection(configuration);
+            client = HBaseClient.shared();
+            configuration = client.getConfiguration();
+            connection = client.getConnection();
             admin = connection.getAdmin();
         } catch (IOException e) {
             MY_LOGGER.error("初始化连接失败！", e);
         }
     }
 
-    // 关闭 HBase 连接和管理接口，释放资源
-    public static void close() {
-        try {
-            if (admin != null) {
+    // 获取共享客户端，必要时先初始化
+    private static HBaseClient client() throws IOException {
+        init();
+        if (client == null) {
+            throw new IOException("HBase 连接未建立");
+        }
+        return client;
+    }
+
+    // 获取异步读写对象，未完成请求数上限见 HBaseAsyncOps
+    private static synchronized HBaseAsyncOps async() throws IOException {
+        if (async == null) {
+            async = new HBaseAsyncOps(client());
+        }
+        return async;
+    }
+
+    // 关闭共享的 HBase 连接，释放资源（程序结束时调用一次即可）
+    public static synchronized void close() {
+        if (admin != null) {
+            try {
                 admin.close();
+            } catch (IOException e) {
+                MY_LOGGER.error("关闭 Admin 失败！", e);
             }
-            if (connection != null) {
-                connection.close();
-            }
-        } catch (IOException e) {
-            MY_LOGGER.error("关闭连接失败！", e);
+            admin = null;
         }
+        HBaseClient.closeShared();
+        client = null;
+        async = null;
+        configuration = null;
+        connection = null;
     }
 
     // 创建示例表，利用 HTableDescriptor 描述表结构；TestTable1 包含两个列族 info 和 data，TestTable2 包含列族 cf
     public static void createExampleTables() throws IOException {
-        init();
+        createExampleTables(FamilyProfile.DEFAULT);
+    }
+
+    // 创建示例表，所有列族按 profile 设置压缩、编码、布隆过滤器、块大小等参数
+    public static void createExampleTables(FamilyProfile profile) throws IOException {
         TableName tableName1 = TableName.valueOf("TestTable1");
         TableName tableName2 = TableName.valueOf("TestTable2");
         HTableDescriptor desc1 = new HTableDescriptor(tableName1);
-        desc1.addFamily(new HColumnDescriptor("info"));
-        desc1.addFamily(new HColumnDescriptor("data"));
+        desc1.addFamily(profile.newFamily("info"));
+        desc1.addFamily(profile.newFamily("data"));
         HTableDescriptor desc2 = new HTableDescriptor(tableName2);
-        desc2.addFamily(new HColumnDescriptor("cf"));
-        if (!admin.tableExists(tableName1)) {
-            admin.createTable(desc1);
-            MY_LOGGER.info("表 {} 已创建", tableName1);
-        } else {
-            MY_LOGGER.info("表 {} 已存在，跳过创建", tableName1);
-        }
-        if (!admin.tableExists(tableName2)) {
-            admin.createTable(desc2);
-            MY_LOGGER.info("表 {} 已创建", tableName2);
-        } else {
-            MY_LOGGER.info("表 {} 已存在，跳过创建", tableName2);
+        desc2.addFamily(profile.newFamily("cf"));
+        try (Admin admin = client().admin()) {
+            if (!admin.tableExists(tableName1)) {
+                admin.createTable(desc1);
+                MY_LOGGER.info("表 {} 已创建", tableName1);
+            } else {
+                MY_LOGGER.info("表 {} 已存在，跳过创建", tableName1);
+            }
+            if (!admin.tableExists(tableName2)) {
+                admin.createTable(desc2);
+                MY_LOGGER.info("表 {} 已创建", tableName2);
+            } else {
+                MY_LOGGER.info("表 {} 已存在，跳过创建", tableName2);
+            }
         }
-        close();
     }
 
     // 列出所有表，不包含额外标号，由 main 方法统一输出任务信息
     public static void listTables() throws IOException {
-        init();
-        HTableDescriptor[] descriptors = admin.listTables();
-        for (HTableDescriptor htd : descriptors) {
-            MY_LOGGER.info("表名: {}", htd.getNameAsString());
+        try (Admin admin = client().admin()) {
+            HTableDescriptor[] descriptors = admin.listTables();
+            for (HTableDescriptor htd : descriptors) {
+                MY_LOGGER.info("表名: {}", htd.getNameAsString());
+            }
         }
-        close();
     }
 
     // 扫描指定表并输出所有记录数据
     public static void getData(String tableName) throws IOException {
-        init();
-        Table table = connection.getTable(TableName.valueOf(tableName));
-        Scan scan = new Scan();
-        ResultScanner scanner = table.getScanner(scan);
-        for (Result result : scanner) {
-            printRecord(result);
-        }
-        scanner.close();
-        table.close();
-        close();
+        getData(tableName, ScanQuery.create());
+    }
+
+    // 按查询条件扫描指定表并输出记录数据，返回输出的行数；行键范围、列投影、值过滤和 limit 都在服务端执行
+    public static long getData(String tableName, ScanQuery query) throws IOException {
+        long rows = 0;
+        try (Table table = client().table(tableName);
+             ResultScanner scanner = table.getScanner(query.toScan())) {
+            byte[] lastRow = null;
+            for (Result result : scanner) {
+                // 设置了 batch 时同一行可能拆成多个 Result
+                if (lastRow == null || !Bytes.equals(lastRow, result.getRow())) {
+                    rows++;
+                    lastRow = result.getRow();
+                }
+                printRecord(result);
+            }
+        }
+        return rows;
+    }
+
+    // 与 getData 相同，但按 Region 并行扫描；ordered 为 true 时保持行键顺序，否则按到达顺序输出
+    public static long getDataParallel(String tableName, ScanQuery query, boolean ordered) throws IOException {
+        try (ParallelScanner scanner = new ParallelScanner(client(), tableName, query.toScan(), ordered)) {
+            for (Result result = scanner.next(); result != null; result = scanner.next()) {
+                printRecord(result);
+            }
+            // 设置了 batch 时同一行可能拆成多个 Result，由扫描器按行计数
+            return scanner.getRows();
+        }
+    }
+
+    // 批量读取指定表的多行并打印，columns 为投影的列（"列族:列" 或 "列族"，为空时读取整行）；
+    // 返回结果与 rows 顺序一致，不存在的行 isFound() 为 false
+    public static List<MultiGet.Entry> getRows(String tableName, List<String> rows, String... columns) throws IOException {
+        List<MultiGet.Entry> entries = new MultiGet(client()).get(tableName, rows, columns);
+        for (MultiGet.Entry entry : entries) {
+            if (entry.isFound()) {
+                printRecord(entry.getResult());
+            } else {
+                MY_LOGGER.info("表 {} 中不存在行 {}", tableName, entry.getRow());
+            }
+        }
+        return entries;
+    }
+
+    // 按查询条件扫描指定表，把结果以 TSV 或 JSON Lines 格式写到 out（不关闭 out），返回写出的单元格数
+    // 直接从单元格底层数组写出，不为每个单元格复制数据，适合导出大范围扫描的结果
+    public static long exportData(String tableName, ScanQuery query, OutputStream out,
+                                  CellWriter.Format format) throws IOException {
+        CellWriter writer = new CellWriter(out, format);
+        try (Table table = client().table(tableName);
+             ResultScanner scanner = table.getScanner(query.toScan())) {
+            for (Result result : scanner) {
+                writer.write(result);
+            }
+        }
+        writer.flush();
+        return writer.getCells();
     }
 
     // 打印单条记录的详细信息：行键、列族、列、值和时间戳
+    // 按偏移量直接从单元格底层数组解码，不再经 CellUtil.clone* 复制出中间数组
     private static void printRecord(Result result) {
         for (Cell cell : result.rawCells()) {
-            String rowKey = Bytes.toString(CellUtil.cloneRow(cell));
-            String cf = Bytes.toString(CellUtil.cloneFamily(cell));
-            String col = Bytes.toString(CellUtil.cloneQualifier(cell));
-            String val = Bytes.toString(CellUtil.cloneValue(cell));
+            String rowKey = Bytes.toString(cell.getRowArray(), cell.getRowOffset(), cell.getRowLength());
+            String cf = Bytes.toString(cell.getFamilyArray(), cell.getFamilyOffset(), cell.getFamilyLength());
+            String col = Bytes.toString(cell.getQualifierArray(), cell.getQualifierOffset(), cell.getQualifierLength());
+            String val = Bytes.toString(cell.getValueArray(), cell.getValueOffset(), cell.getValueLength());
             long ts = cell.getTimestamp();
             MY_LOGGER.info("行键: {}, 列族: {}, 列: {}, 值: {}, 时间戳: {}", rowKey, cf, col, val, ts);
         }
@@ -111,74 +207,124 @@ public class MyHBase {
     // 插入数据到指定表（模拟向表中添加列数据）
     public static void insertRow(String tableName, String rowKey,
                                  String colFamily, String col, String val) throws IOException {
-        init();
-        Table table = connection.getTable(TableName.valueOf(tableName));
+        try (Table table = client().table(tableName)) {
+            Put put = new Put(Bytes.toBytes(rowKey));
+            put.addColumn(Bytes.toBytes(colFamily), Bytes.toBytes(col), Bytes.toBytes(val));
+            table.put(put);
+        }
+        MY_LOGGER.info("向表 {} 的行键 {} 插入列 {}:{} = {}", tableName, rowKey, colFamily, col, val);
+    }
+
+    // insertRow 的异步版本：立即返回，写入完成时 future 完成；未完成请求数达到上限时阻塞
+    public static CompletableFuture<Void> insertRowAsync(String tableName, String rowKey,
+                                                         String colFamily, String col, String val) throws IOException {
         Put put = new Put(Bytes.toBytes(rowKey));
         put.addColumn(Bytes.toBytes(colFamily), Bytes.toBytes(col), Bytes.toBytes(val));
-        table.put(put);
-        MY_LOGGER.info("向表 {} 的行键 {} 插入列 {}:{} = {}", tableName, rowKey, colFamily, col, val);
-        table.close();
-        close();
+        return async().put(tableName, put);
     }
 
     // 删除指定数据（删除指定行的特定列）
     public static void deleRow(String tableName, String rowKey,
                                String colFamily, String col) throws IOException {
-        init();
-        Table table = connection.getTable(TableName.valueOf(tableName));
+        try (Table table = client().table(tableName)) {
+            Delete delete = new Delete(Bytes.toBytes(rowKey));
+            delete.addColumn(Bytes.toBytes(colFamily), Bytes.toBytes(col));
+            table.delete(delete);
+        }
+        MY_LOGGER.info("从表 {} 的行键 {} 删除列 {}:{}", tableName, rowKey, colFamily, col);
+    }
+
+    // deleRow 的异步版本
+    public static CompletableFuture<Void> deleRowAsync(String tableName, String rowKey,
+                                                       String colFamily, String col) throws IOException {
         Delete delete = new Delete(Bytes.toBytes(rowKey));
         delete.addColumn(Bytes.toBytes(colFamily), Bytes.toBytes(col));
-        table.delete(delete);
-        MY_LOGGER.info("从表 {} 的行键 {} 删除列 {}:{}", tableName, rowKey, colFamily, col);
-        table.close();
-        close();
+        return async().delete(tableName, delete);
+    }
+
+    // 异步读取一行，行不存在时返回空的 Result
+    public static CompletableFuture<Result> getRowAsync(String tableName, String rowKey) throws IOException {
+        return async().get(tableName, new Get(Bytes.toBytes(rowKey)));
+    }
+
+    // getData 的异步版本：按查询条件扫描，完成时打印全部记录并返回行数（结果一次性取回，只适合小表）
+    public static CompletableFuture<Long> getDataAsync(String tableName, ScanQuery query) throws IOException {
+        return async().scanAll(tableName, query.toScan()).thenApply(results -> {
+            for (Result result : results) {
+                printRecord(result);
+            }
+            return (long) results.size();
+        });
     }
 
-    // 统计指定表行数，并打印统计结果
+    // 统计指定表行数，并打印统计结果（服务端只返回每行的第一个 key，不传输 value）
     public static void countRows(String tableName) throws IOException {
-        init();
-        Table table = connection.getTable(TableName.valueOf(tableName));
-        Scan scan = new Scan();
-        ResultScanner scanner = table.getScanner(scan);
-        int count = 0;
-        for (Result r = scanner.next(); r != null; r = scanner.next()) {
-            count++;
-        }
+        countRows(tableName, false);
+    }
+
+    // 统计指定表行数；parallel 为 true 时按 Region 并发统计
+    public static void countRows(String tableName, boolean parallel) throws IOException {
+        HBaseRowCounter.Mode mode = parallel ? HBaseRowCounter.Mode.PARALLEL : HBaseRowCounter.Mode.KEY_ONLY;
+        long count = new HBaseRowCounter(client()).count(tableName, mode).getRows();
         MY_LOGGER.info("表 {} 的行数: {}", tableName, count);
-        scanner.close();
-        table.close();
-        close();
     }
 
-    // 清空指定表数据：删除表后重新创建（重建时只添加列族 info）
+    // 清空指定表数据：用 truncateTable 清空并保留原有的表结构（全部列族及其配置）和 Region 预分区
     public static void clearRows(String tableName) throws IOException {
-        init();
         TableName tn = TableName.valueOf(tableName);
-        if (admin.tableExists(tn)) {
-            admin.disableTable(tn);
-            admin.deleteTable(tn);
-            MY_LOGGER.info("表 {} 已删除", tn);
-            HTableDescriptor newDesc = new HTableDescriptor(tn);
-            newDesc.addFamily(new HColumnDescriptor("info"));
-            admin.createTable(newDesc);
-            MY_LOGGER.info("表 {} 已重新创建(空表)", tn);
-        } else {
-            MY_LOGGER.warn("表 {} 不存在，无法清空", tn);
+        try (Admin admin = client().admin()) {
+            if (!admin.tableExists(tn)) {
+                MY_LOGGER.warn("表 {} 不存在，无法清空", tn);
+                return;
+            }
+            int regions = admin.getRegions(tn).size();
+            if (admin.isTableEnabled(tn)) {
+                admin.disableTable(tn);
+            }
+            admin.truncateTable(tn, true);
+            MY_LOGGER.info("表 {} 已清空(保留列族 {} 和 {} 个 Region)", tn,
+                    admin.getDescriptor(tn).getColumnFamilyNames().stream()
+                            .map(Bytes::toString).collect(Collectors.toList()), regions);
         }
-        close();
+    }
+
+    // 异步清空指定表数据，立即返回；调用方可以先做其他工作，需要时再等待返回的 future
+    public static CompletableFuture<Void> clearRowsAsync(String tableName) throws IOException {
+        TableName tn = TableName.valueOf(tableName);
+        AsyncAdmin admin = client().getAsyncConnection().getAdmin();
+        return admin.tableExists(tn).thenCompose(exists -> {
+            if (!exists) {
+                MY_LOGGER.warn("表 {} 不存在，无法清空", tn);
+                return CompletableFuture.completedFuture(null);
+            }
+            return admin.isTableEnabled(tn)
+                    .thenCompose(enabled -> enabled ? admin.disableTable(tn) : CompletableFuture.completedFuture(null))
+                    .thenCompose(v -> admin.truncateTable(tn, true))
+                    .thenRun(() -> MY_LOGGER.info("表 {} 已异步清空", tn));
+        });
     }
 
     // 删除所有表，清理测试环境
     public static void deleteAllTables() throws IOException {
-        init();
-        HTableDescriptor[] descriptors = admin.listTables();
-        for (HTableDescriptor htd : descriptors) {
-            TableName tn = htd.getTableName();
-            MY_LOGGER.info("正在删除表: {}", tn);
-            admin.disableTable(tn);
-            admin.deleteTable(tn);
+        try (Admin admin = client().admin()) {
+            HTableDescriptor[] descriptors = admin.listTables();
+            for (HTableDescriptor htd : descriptors) {
+                TableName tn = htd.getTableName();
+                MY_LOGGER.info("正在删除表: {}", tn);
+                admin.disableTable(tn);
+                admin.deleteTable(tn);
+            }
+        }
+    }
+
+    // 演示用：导出结果只通过日志输出前几行，不直接写到标准输出
+    private static void logSample(ByteArrayOutputStream exported, long cells) {
+        String[] lines = new String(exported.toByteArray(), StandardCharsets.UTF_8).split("\n");
+        int shown = Math.min(EXPORT_SAMPLE_LINES, lines.length);
+        MY_LOGGER.info("共导出 {} 个单元格，前 {} 行：", cells, shown);
+        for (int i = 0; i < shown; i++) {
+            MY_LOGGER.info("  {}", lines[i]);
         }
-        close();
     }
 
     // 主函数：所有主要任务的任务信息统一在此输出，按 (1)-(5) 顺序进行
@@ -198,6 +344,24 @@ public class MyHBase {
         
         MY_LOGGER.info("=== (2) 打印指定表 'TestTable1' 的所有记录数据 ===");
         getData("TestTable1");
+        MY_LOGGER.info("=== 只打印 row2 之后、info:name 以 C 开头的行的 name 列（服务端过滤） ===");
+        getData("TestTable1", ScanQuery.create().startRow("row2").column("info:name")
+                .whereValuePrefix("info:name", "C"));
+        
+        MY_LOGGER.info("=== 批量读取 row3、row9、row1 的 info 列族（row9 不存在） ===");
+        getRows("TestTable1", Arrays.asList("row3", "row9", "row1"), "info");
+        
+        MY_LOGGER.info("=== 以 JSON Lines 格式导出 'TestTable1' 的 data 列族（只显示前几行） ===");
+        ByteArrayOutputStream exported = new ByteArrayOutputStream();
+        long cells = exportData("TestTable1", ScanQuery.create().column("data"), exported, CellWriter.Format.JSON);
+        logSample(exported, cells);
+        
+        MY_LOGGER.info("=== 异步插入 TestTable2 的 3 行并读回 ===");
+        CompletableFuture.allOf(
+                insertRowAsync("TestTable2", "r1", "cf", "v", "1"),
+                insertRowAsync("TestTable2", "r2", "cf", "v", "2"),
+                insertRowAsync("TestTable2", "r3", "cf", "v", "3")).join();
+        getDataAsync("TestTable2", ScanQuery.create()).join();
         
         MY_LOGGER.info("=== (3) 统计表 'TestTable1' 的行数 ===");
         countRows("TestTable1");
@@ -220,6 +384,7 @@ public class MyHBase {
         deleteAllTables();
         MY_LOGGER.info("测试完毕，所有表已删除。再次列出所有表检查:");
         listTables();
+        close();
         MY_LOGGER.info("程序执行完毕");
     }
 }
\ No newline at end of file
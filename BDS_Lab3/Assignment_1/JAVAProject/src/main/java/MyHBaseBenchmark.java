@@ -0,0 +1,572 @@
+/**
+ * MyHBase 性能对比小工具（非 JMH，直接 main 运行，避免给实验工程引入额外依赖）。
+ *
+ * 连接 HBaseConfiguration.create() 指向的集群（默认 ZooKeeper 为 localhost:2181，
+ * 可以是伪分布式集群，也可以是 HBaseTestingUtility 启动的 mini-cluster），
+ * 测试表以 MyHBaseBench 为前缀，测试结束后删除。
+ * 用法：
+ *   java -Dops=2000 -cp build/libs/MyHBase.jar MyHBaseBenchmark connection
+ *   java -Drows=200000 -Dregions=8 -cp build/libs/MyHBase.jar MyHBaseBenchmark count
+ *   java -Drows=100000 -Dops=2000 -cp build/libs/MyHBase.jar MyHBaseBenchmark profile
+ *   java -Drows=200000 -Dregions=8 -cp build/libs/MyHBase.jar MyHBaseBenchmark scan
+ *   java -Drows=100000 -cp build/libs/MyHBase.jar MyHBaseBenchmark render
+ *   java -Dops=20000 -Dconcurrency=1,8,64,256 -cp build/libs/MyHBase.jar MyHBaseBenchmark async
+ */
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.HColumnDescriptor;
+import org.apache.hadoop.hbase.HTableDescriptor;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.RegionMetrics;
+import org.apache.hadoop.hbase.ServerName;
+import org.apache.hadoop.hbase.Size;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Admin;
+import org.apache.hadoop.hbase.client.BufferedMutator;
+import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.client.ConnectionFactory;
+import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.client.Table;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.config.Configurator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class MyHBaseBenchmark {
+
+    private static final Logger MY_LOGGER = LoggerFactory.getLogger("my.own.logger");
+
+    private static final String TABLE_PREFIX = "MyHBaseBench";
+    private static final byte[] FAMILY = Bytes.toBytes("info");
+    private static final byte[] QUALIFIER = Bytes.toBytes("name");
+
+    private interface Op {
+        void run(int i) throws IOException;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Configurator.setAllLevels("org.apache.hadoop", Level.ERROR);
+        Configurator.setAllLevels("org.apache.zookeeper", Level.ERROR);
+        Configurator.setAllLevels("org.apache.hadoop.hbase", Level.ERROR);
+        Configurator.setAllLevels("my.own.logger", Level.INFO);
+
+        String scenario = args.length > 0 ? args[0] : "connection";
+        Configuration configuration = HBaseClient.defaultConfiguration();
+        try (HBaseClient client = new HBaseClient(configuration)) {
+            switch (scenario) {
+                case "connection":
+                    benchConnection(client, Integer.getInteger("ops", 2000));
+                    break;
+                case "count":
+                    benchCount(client, Integer.getInteger("rows", 200000), Integer.getInteger("regions", 8));
+                    break;
+                case "profile":
+                    benchProfile(client, Integer.getInteger("rows", 100000), Integer.getInteger("ops", 2000));
+                    break;
+                case "scan":
+                    benchScan(client, Integer.getInteger("rows", 200000), Integer.getInteger("regions", 8));
+                    break;
+                case "render":
+                    benchRender(Integer.getInteger("rows", 100000));
+                    break;
+                case "async":
+                    benchAsync(client, Integer.getInteger("ops", 20000), System.getProperty("concurrency", "1,8,64,256"));
+                    break;
+                default:
+                    MY_LOGGER.info("未知的测试场景: {}", scenario);
+            }
+        }
+    }
+
+    /**
+     * 对比旧的“每次操作 init()/close()”与共享连接两种方式下单行 put/get 的延迟
+     */
+    private static void benchConnection(HBaseClient client, int ops) throws IOException {
+        String tableName = TABLE_PREFIX + "Connection";
+        createTable(client, tableName, FAMILY);
+        try {
+            // 旧方式每次都要重新连接 ZooKeeper 并定位 meta，次数少一些，否则耗时过长
+            int reconnectOps = Math.max(10, ops / 20);
+            Configuration configuration = client.getConfiguration();
+
+            Op reconnectPut = i -> {
+                try (Connection connection = ConnectionFactory.createConnection(configuration);
+                     Table table = connection.getTable(TableName.valueOf(tableName))) {
+                    // 旧 init() 每次都会取一个 Admin；这里不使用它，只是还原这部分开销
+                    connection.getAdmin().close();
+                    table.put(newPut(i));
+                }
+            };
+            Op reconnectGet = i -> {
+                try (Connection connection = ConnectionFactory.createConnection(configuration);
+                     Table table = connection.getTable(TableName.valueOf(tableName))) {
+                    // 旧 init() 每次都会取一个 Admin；这里不使用它，只是还原这部分开销
+                    connection.getAdmin().close();
+                    table.get(new Get(rowKey(i)));
+                }
+            };
+            Op sharedPut = i -> {
+                try (Table table = client.table(tableName)) {
+                    table.put(newPut(i));
+                }
+            };
+            Op sharedGet = i -> {
+                try (Table table = client.table(tableName)) {
+                    table.get(new Get(rowKey(i)));
+                }
+            };
+
+            measureLatency("put, 每次 init()/close()", reconnectPut, reconnectOps);
+            measureLatency("get, 每次 init()/close()", reconnectGet, reconnectOps);
+            measureLatency("put, 共享 HBaseClient", sharedPut, ops);
+            measureLatency("get, 共享 HBaseClient", sharedGet, ops);
+        } finally {
+            dropTable(client, tableName);
+        }
+    }
+
+    /**
+     * 对比 FULL / KEY_ONLY / PARALLEL 三种行数统计方式的结果、耗时和传输字节数
+     */
+    private static void benchCount(HBaseClient client, int rows, int regions) throws IOException {
+        String tableName = TABLE_PREFIX + "Count";
+        // 按行键均匀预分区，使并行模式有多个 Region 可用
+        byte[][] splits = new byte[regions - 1][];
+        for (int r = 1; r < regions; r++) {
+            splits[r - 1] = rowKey((int) ((long) rows * r / regions));
+        }
+        createTable(client, tableName, splits, FAMILY);
+        try {
+            loadRows(client, tableName, rows, 5, 100);
+            // 刷到 HFile，使扫描走与线上一致的读路径
+            client.withAdmin(admin -> {
+                admin.flush(TableName.valueOf(tableName));
+                return null;
+            });
+            HBaseRowCounter counter = new HBaseRowCounter(client);
+            for (HBaseRowCounter.Mode mode : HBaseRowCounter.Mode.values()) {
+                // 先跑一次预热
+                counter.count(tableName, mode);
+                long start = System.nanoTime();
+                HBaseRowCounter.Count count = counter.count(tableName, mode);
+                double seconds = (System.nanoTime() - start) / 1e9;
+                MY_LOGGER.info(String.format("%-9s rows=%-8d %s  %7.3f s  传输 %9.2f MB  RPC %6d  范围数 %d",
+                        mode, count.getRows(), count.getRows() == rows ? "正确" : "错误",
+                        seconds, count.getBytes() / 1048576.0, count.getRpcs(), count.getRanges()));
+            }
+        } finally {
+            dropTable(client, tableName);
+        }
+    }
+
+    /**
+     * 预分区数从 1 倍增到 regions 时，单个 ResultScanner 与 ParallelScanner（无序、有序）全表扫描的吞吐量
+     */
+    private static void benchScan(HBaseClient client, int rows, int regions) throws IOException {
+        String tableName = TABLE_PREFIX + "Scan";
+        for (int n = 1; n <= regions; n *= 2) {
+            byte[][] splits = new byte[n - 1][];
+            for (int r = 1; r < n; r++) {
+                splits[r - 1] = rowKey((int) ((long) rows * r / n));
+            }
+            createTable(client, tableName, splits, FAMILY);
+            try {
+                loadRows(client, tableName, rows, 5, 100);
+                client.withAdmin(admin -> {
+                    admin.flush(TableName.valueOf(tableName));
+                    return null;
+                });
+                // 先跑一次预热
+                scanSingle(client, tableName);
+                long start = System.nanoTime();
+                long scanned = scanSingle(client, tableName);
+                reportScan("ResultScanner", n, scanned, rows, true, System.nanoTime() - start);
+                for (boolean ordered : new boolean[]{false, true}) {
+                    start = System.nanoTime();
+                    scanned = 0;
+                    boolean sorted = true;
+                    byte[] last = null;
+                    try (ParallelScanner scanner = new ParallelScanner(client, tableName, newScan(), ordered)) {
+                        for (Result r = scanner.next(); r != null; r = scanner.next()) {
+                            scanned++;
+                            sorted &= last == null || Bytes.compareTo(last, r.getRow()) < 0;
+                            last = r.getRow();
+                        }
+                    }
+                    reportScan(ordered ? "ParallelScanner 有序" : "ParallelScanner 无序", n, scanned, rows,
+                            !ordered || sorted, System.nanoTime() - start);
+                }
+            } finally {
+                dropTable(client, tableName);
+            }
+        }
+    }
+
+    // ResultScanner 扫描过程中会改写传入 Scan 的起始行，每次扫描都要用新的 Scan
+    private static Scan newScan() {
+        return new Scan().setCaching(1000);
+    }
+
+    private static long scanSingle(HBaseClient client, String tableName) throws IOException {
+        long scanned = 0;
+        try (Table table = client.table(tableName);
+             ResultScanner scanner = table.getScanner(newScan())) {
+            for (Result r = scanner.next(); r != null; r = scanner.next()) {
+                scanned++;
+            }
+        }
+        return scanned;
+    }
+
+    private static void reportScan(String label, int regions, long scanned, int rows, boolean sorted, long nanos) {
+        double seconds = nanos / 1e9;
+        MY_LOGGER.info(String.format("%-20s Region=%-3d rows=%-8d %s  %7.3f s  %10.0f 行/秒", label, regions, scanned,
+                scanned == rows && sorted ? "正确" : "错误", seconds, scanned / seconds));
+    }
+
+    /**
+     * 不同并发度下同步与异步 put / get 的吞吐量和延迟：
+     * 同步方式用 concurrency 个线程各自阻塞调用 Table；异步方式由一个线程发起请求，最多 concurrency 个未完成
+     */
+    private static void benchAsync(HBaseClient client, int ops, String concurrencyList) throws Exception {
+        String tableName = TABLE_PREFIX + "Async";
+        createTable(client, tableName, FAMILY);
+        try {
+            for (String c : concurrencyList.split(",")) {
+                int concurrency = Integer.parseInt(c.trim());
+                for (boolean put : new boolean[]{true, false}) {
+                    String op = put ? "put" : "get";
+                    long[] nanos = new long[ops];
+                    long start = System.nanoTime();
+                    ExecutorService pool = Executors.newFixedThreadPool(concurrency);
+                    try {
+                        List<Future<?>> futures = new ArrayList<>();
+                        for (int t = 0; t < concurrency; t++) {
+                            int thread = t;
+                            futures.add(pool.submit(() -> {
+                                try (Table table = client.table(tableName)) {
+                                    for (int i = thread; i < ops; i += concurrency) {
+                                        long begin = System.nanoTime();
+                                        if (put) {
+                                            table.put(newPut(i));
+                                        } else {
+                                            table.get(new Get(rowKey(i)));
+                                        }
+                                        nanos[i] = System.nanoTime() - begin;
+                                    }
+                                }
+                                return null;
+                            }));
+                        }
+                        for (Future<?> future : futures) {
+                            future.get();
+                        }
+                    } finally {
+                        pool.shutdown();
+                    }
+                    reportConcurrent("同步 " + op, concurrency, nanos, System.nanoTime() - start);
+
+                    HBaseAsyncOps async = new HBaseAsyncOps(client, concurrency);
+                    start = System.nanoTime();
+                    List<CompletableFuture<?>> futures = new ArrayList<>(ops);
+                    for (int i = 0; i < ops; i++) {
+                        int index = i;
+                        long begin = System.nanoTime();
+                        CompletableFuture<?> future = put ? async.put(tableName, newPut(i))
+                                : async.get(tableName, new Get(rowKey(i)));
+                        futures.add(future.whenComplete((r, e) -> nanos[index] = System.nanoTime() - begin));
+                    }
+                    CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+                    reportConcurrent("异步 " + op, concurrency, nanos, System.nanoTime() - start);
+                }
+            }
+        } finally {
+            dropTable(client, tableName);
+        }
+    }
+
+    private static void reportConcurrent(String label, int concurrency, long[] nanos, long totalNanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        double avg = Arrays.stream(sorted).average().orElse(0) / 1e6;
+        MY_LOGGER.info(String.format("%-8s 并发=%-4d ops=%-6d avg=%8.3f ms  p99=%8.3f ms  %10.1f ops/s",
+                label, concurrency, sorted.length, avg, percentile(sorted, 0.99), sorted.length / (totalNanos / 1e9)));
+    }
+
+    /**
+     * 单元格输出的每单元格分配字节数：CellUtil.clone* 后转 String（原 printRecord）、
+     * 按偏移量 Bytes.toString、CellWriter 写 TSV / JSON。
+     * 在内存中构造 rows 行 × 5 列的 Result，不访问集群，只统计当前线程的堆分配量（HotSpot 的 ThreadMXBean 扩展）
+     */
+    private static void benchRender(int rows) throws IOException {
+        List<Result> results = new ArrayList<>(rows);
+        byte[] value = Bytes.toBytes("value-of-a-typical-student-column");
+        for (int i = 0; i < rows; i++) {
+            List<Cell> cells = new ArrayList<>(5);
+            for (int c = 0; c < 5; c++) {
+                cells.add(new KeyValue(rowKey(i), FAMILY, Bytes.toBytes("c" + c), 1700000000000L + i, value));
+            }
+            results.add(Result.create(cells));
+        }
+        long cells = rows * 5L;
+        // 丢弃输出，只统计字节数
+        long[] written = new long[1];
+        OutputStream sink = new OutputStream() {
+            @Override
+            public void write(int b) {
+                written[0]++;
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                written[0] += len;
+            }
+        };
+
+        for (int round = 0; round < 2; round++) {
+            // 第一轮为预热（JIT 编译、逃逸分析生效），只输出第二轮
+            boolean report = round == 1;
+            long chars = 0;
+            long[] mark = allocationMark();
+            for (Result result : results) {
+                for (Cell cell : result.rawCells()) {
+                    chars += Bytes.toString(CellUtil.cloneRow(cell)).length()
+                            + Bytes.toString(CellUtil.cloneFamily(cell)).length()
+                            + Bytes.toString(CellUtil.cloneQualifier(cell)).length()
+                            + Bytes.toString(CellUtil.cloneValue(cell)).length();
+                }
+            }
+            reportAllocation(report, "CellUtil.clone* + String", mark, cells, chars);
+
+            chars = 0;
+            mark = allocationMark();
+            for (Result result : results) {
+                for (Cell cell : result.rawCells()) {
+                    chars += Bytes.toString(cell.getRowArray(), cell.getRowOffset(), cell.getRowLength()).length()
+                            + Bytes.toString(cell.getFamilyArray(), cell.getFamilyOffset(), cell.getFamilyLength()).length()
+                            + Bytes.toString(cell.getQualifierArray(), cell.getQualifierOffset(), cell.getQualifierLength()).length()
+                            + Bytes.toString(cell.getValueArray(), cell.getValueOffset(), cell.getValueLength()).length();
+                }
+            }
+            reportAllocation(report, "按偏移量 Bytes.toString", mark, cells, chars);
+
+            for (CellWriter.Format format : CellWriter.Format.values()) {
+                written[0] = 0;
+                mark = allocationMark();
+                CellWriter writer = new CellWriter(sink, format);
+                for (Result result : results) {
+                    writer.write(result);
+                }
+                writer.flush();
+                reportAllocation(report, "CellWriter " + format, mark, cells, written[0]);
+            }
+        }
+    }
+
+    // {当前线程已分配的字节数, 纳秒时间}
+    private static long[] allocationMark() {
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return new long[]{bean.getThreadAllocatedBytes(Thread.currentThread().getId()), System.nanoTime()};
+    }
+
+    private static void reportAllocation(boolean report, String label, long[] mark, long cells, long output) {
+        long[] now = allocationMark();
+        if (report) {
+            MY_LOGGER.info(String.format("%-26s cells=%-8d 每单元格分配 %7.1f B  %6.1f ns/单元格  输出 %d",
+                    label, cells, (double) (now[0] - mark[0]) / cells, (double) (now[1] - mark[1]) / cells, output));
+        }
+    }
+
+    /**
+     * 每种列族调优配置下的磁盘占用（StoreFile 大小）、随机 get 延迟和全表扫描耗时
+     */
+    private static void benchProfile(HBaseClient client, int rows, int ops) throws Exception {
+        String tableName = TABLE_PREFIX + "Profile";
+        TableName tn = TableName.valueOf(tableName);
+        Random random = new Random(42);
+        for (FamilyProfile profile : FamilyProfile.values()) {
+            try (Admin admin = client.admin()) {
+                if (admin.tableExists(tn)) {
+                    admin.disableTable(tn);
+                    admin.deleteTable(tn);
+                }
+                HTableDescriptor descriptor = new HTableDescriptor(tn);
+                descriptor.addFamily(profile.newFamily(Bytes.toString(FAMILY)));
+                admin.createTable(descriptor);
+            }
+            try {
+                loadStudentRows(client, tableName, rows);
+                long[] sizes = flushAndMeasure(client, tn);
+
+                MY_LOGGER.info(String.format("%s 压缩=%s 磁盘 %.2f MB (未压缩 %.2f MB)",
+                        profile, profile.compression(), sizes[0] / 1048576.0, sizes[1] / 1048576.0));
+                measureLatency("  随机 get", i -> {
+                    try (Table table = client.table(tableName)) {
+                        table.get(new Get(rowKey(random.nextInt(rows))));
+                    }
+                }, ops);
+                long start = System.nanoTime();
+                long scanned = 0;
+                try (Table table = client.table(tableName);
+                     ResultScanner scanner = table.getScanner(new Scan().setCaching(1000))) {
+                    for (Result r = scanner.next(); r != null; r = scanner.next()) {
+                        scanned++;
+                    }
+                }
+                MY_LOGGER.info(String.format("  全表扫描 %d 行 %.3f s", scanned, (System.nanoTime() - start) / 1e9));
+            } finally {
+                dropTable(client, tableName);
+            }
+        }
+    }
+
+    // 写入学生信息风格的行（文本值，有一定重复，便于体现压缩和编码的效果）
+    private static void loadStudentRows(HBaseClient client, String tableName, int rows) throws IOException {
+        String[] majors = {"Computer Science", "Mathematics", "Physics", "Chemistry", "Biology", "English"};
+        try (BufferedMutator mutator = client.getConnection().getBufferedMutator(TableName.valueOf(tableName))) {
+            for (int i = 0; i < rows; i++) {
+                Put put = new Put(rowKey(i));
+                put.addColumn(FAMILY, Bytes.toBytes("S_Name"), Bytes.toBytes("Student Name " + i));
+                put.addColumn(FAMILY, Bytes.toBytes("S_Sex"), Bytes.toBytes(i % 2 == 0 ? "male" : "female"));
+                put.addColumn(FAMILY, Bytes.toBytes("S_Age"), Bytes.toBytes(String.valueOf(18 + i % 8)));
+                put.addColumn(FAMILY, Bytes.toBytes("S_Major"), Bytes.toBytes(majors[i % majors.length]));
+                put.addColumn(FAMILY, Bytes.toBytes("S_Addr"),
+                        Bytes.toBytes("No." + (i % 500) + " Xueyuan Road, Haidian District, Beijing"));
+                mutator.mutate(put);
+            }
+        }
+    }
+
+    // 把表刷到 HFile，等到各 Region 都已有 StoreFile 且 MemStore 为空；返回 {磁盘大小, 未压缩大小}（字节）。
+    // RegionMetrics 的 StoreFile 大小按整 MB 上报，不足 1 MB 时为 0，不能用来判断刷写是否完成
+    private static long[] flushAndMeasure(HBaseClient client, TableName tn) throws Exception {
+        try (Admin admin = client.admin()) {
+            admin.flush(tn);
+            long deadline = System.currentTimeMillis() + 30000;
+            while (true) {
+                long size = 0;
+                long uncompressed = 0;
+                int regions = 0;
+                boolean ready = true;
+                for (ServerName server : admin.getRegionServers()) {
+                    for (RegionMetrics metrics : admin.getRegionMetrics(server, tn)) {
+                        regions++;
+                        size += (long) metrics.getStoreFileSize().get(Size.Unit.BYTE);
+                        uncompressed += (long) metrics.getUncompressedStoreFileSize().get(Size.Unit.BYTE);
+                        ready &= metrics.getStoreFileCount() > 0 && metrics.getMemStoreSize().get(Size.Unit.BYTE) == 0;
+                    }
+                }
+                if ((ready && regions > 0) || System.currentTimeMillis() > deadline) {
+                    return new long[]{size, uncompressed};
+                }
+                Thread.sleep(500);
+            }
+        }
+    }
+
+    /**
+     * 通过 BufferedMutator 写入 rows 行，每行 columns 列、每个值 valueSize 字节
+     */
+    private static void loadRows(HBaseClient client, String tableName, int rows, int columns, int valueSize) throws IOException {
+        byte[] value = new byte[valueSize];
+        Arrays.fill(value, (byte) 'x');
+        try (BufferedMutator mutator = client.getConnection().getBufferedMutator(TableName.valueOf(tableName))) {
+            for (int i = 0; i < rows; i++) {
+                Put put = new Put(rowKey(i));
+                for (int c = 0; c < columns; c++) {
+                    put.addColumn(FAMILY, Bytes.toBytes("c" + c), value);
+                }
+                mutator.mutate(put);
+            }
+        }
+    }
+
+    private static byte[] rowKey(int i) {
+        return Bytes.toBytes(String.format("row%08d", i));
+    }
+
+    private static Put newPut(int i) {
+        Put put = new Put(rowKey(i));
+        put.addColumn(FAMILY, QUALIFIER, Bytes.toBytes("value" + i));
+        return put;
+    }
+
+    /**
+     * 预热后执行 ops 次操作，输出平均、p50、p99 延迟和吞吐量
+     */
+    private static void measureLatency(String label, Op op, int ops) throws IOException {
+        int warmup = Math.max(1, ops / 10);
+        for (int i = 0; i < warmup; i++) {
+            op.run(i);
+        }
+        long[] nanos = new long[ops];
+        long start = System.nanoTime();
+        for (int i = 0; i < ops; i++) {
+            long t = System.nanoTime();
+            op.run(i);
+            nanos[i] = System.nanoTime() - t;
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        Arrays.sort(nanos);
+        double avg = Arrays.stream(nanos).average().orElse(0) / 1e6;
+        MY_LOGGER.info(String.format("%-28s ops=%-6d avg=%8.3f ms  p50=%8.3f ms  p99=%8.3f ms  %10.1f ops/s",
+                label, ops, avg, percentile(nanos, 0.50), percentile(nanos, 0.99), ops / seconds));
+    }
+
+    private static double percentile(long[] sortedNanos, double p) {
+        int index = (int) Math.min(sortedNanos.length - 1, Math.round(p * (sortedNanos.length - 1)));
+        return sortedNanos[index] / 1e6;
+    }
+
+    private static void createTable(HBaseClient client, String tableName, byte[]... families) throws IOException {
+        createTable(client, tableName, null, families);
+    }
+
+    private static void createTable(HBaseClient client, String tableName, byte[][] splits, byte[]... families) throws IOException {
+        try (Admin admin = client.admin()) {
+            TableName tn = TableName.valueOf(tableName);
+            if (admin.tableExists(tn)) {
+                admin.disableTable(tn);
+                admin.deleteTable(tn);
+            }
+            HTableDescriptor descriptor = new HTableDescriptor(tn);
+            for (byte[] family : families) {
+                descriptor.addFamily(new HColumnDescriptor(family));
+            }
+            if (splits == null || splits.length == 0) {
+                admin.createTable(descriptor);
+            } else {
+                admin.createTable(descriptor, splits);
+            }
+        }
+    }
+
+    private static void dropTable(HBaseClient client, String tableName) throws IOException {
+        try (Admin admin = client.admin()) {
+            TableName tn = TableName.valueOf(tableName);
+            if (admin.tableExists(tn)) {
+                admin.disableTable(tn);
+                admin.deleteTable(tn);
+            }
+        }
+    }
+}
@@ -0,0 +1,355 @@
+/**
+ * 按 Region 并行的表扫描器。
+ *
+ * 单个 ResultScanner 按行键顺序逐个 Region 扫描，无论表有多少个 Region 都只有一个线程在读。
+ * ParallelScanner 按 Region 边界把扫描范围切开，在线程池（myhbase.scan.threads）中同时扫描各 Region，
+ * 结果经有界阻塞队列（共 myhbase.scan.queue.size 个 Result）交给调用方：
+ * 调用方消费慢时队列写满，扫描线程阻塞在 put 上，不会把整张表读进内存（背压）。
+ *
+ * 结果顺序：
+ *   无序   —— 所有 Region 共用一个队列，先扫到先返回，吞吐最高；
+ *   有序   —— 每个扫描范围一个队列。未指定排序键时按范围顺序依次输出（各范围按行键排列且互不重叠），
+ *             后面的范围在线程池中提前扫描并缓冲；
+ *             指定排序键时（如加盐表的原始行键）对各范围做多路归并，此时所有范围必须同时扫描，线程数等于范围数；
+ *             范围数超过 myhbase.scan.merge.max.threads 时不再开线程，由调用线程直接从各范围的 ResultScanner
+ *             依次读取并归并（每个范围只缓冲一批 caching 行）。
+ * 用法与 ResultScanner 相同：循环调用 next() 直到返回 null，用完后 close()（会中止尚未完成的扫描）。
+ * Scan 设置了 batch 时同一行会拆成多个 Result，limit 和 getRows() 都按行计数。
+ */
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.RegionLocator;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.client.Table;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.hbase.util.Pair;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+public class ParallelScanner implements Closeable {
+
+    public static final String THREADS_KEY = "myhbase.scan.threads";
+    public static final int DEFAULT_THREADS = 8;
+    public static final String QUEUE_SIZE_KEY = "myhbase.scan.queue.size";
+    public static final int DEFAULT_QUEUE_SIZE = 10000;
+    public static final String MERGE_MAX_THREADS_KEY = "myhbase.scan.merge.max.threads";
+    public static final int DEFAULT_MERGE_MAX_THREADS = 64;
+
+    // 扫描线程结束时放入队列的标记
+    private static final Entry END = new Entry(null, -1);
+    // 等待队列时检查出错和关闭状态的间隔
+    private static final long POLL_MS = 100;
+
+    private final List<Scan> ranges;
+    private final List<BlockingQueue<Entry>> queues = new ArrayList<>();
+    private final ExecutorService pool;
+    private final boolean ordered;
+    private final UnaryOperator<byte[]> sortKey;
+    private final int limit;
+    private final AtomicReference<Throwable> error = new AtomicReference<>();
+    // 多路归并不开线程时使用的表和各范围的扫描器，否则为 null
+    private final HBaseClient client;
+    private final String tableName;
+    private Table table;
+    private List<ResultScanner> scanners;
+
+    // 无序模式下尚未结束的扫描线程数
+    private int running;
+    // 有序按范围输出时当前输出的范围
+    private int current;
+    // 多路归并时各范围的当前行
+    private PriorityQueue<Head> heads;
+    // 各范围上一个返回的行键，用于判断 batch 拆开的 Result 是否属于同一行
+    private final byte[][] lastRows;
+    private long rows;
+    // 已达到 limit
+    private boolean limitReached;
+    private volatile boolean closed;
+
+    // 扫描结果及其所属的范围
+    private static class Entry {
+        final Result result;
+        final int range;
+
+        Entry(Result result, int range) {
+            this.result = result;
+            this.range = range;
+        }
+    }
+
+    private static class Head extends Entry {
+        final byte[] key;
+
+        Head(Result result, byte[] key, int range) {
+            super(result, range);
+            this.key = key;
+        }
+    }
+
+    /**
+     * 并行执行 scan，scan 中的行键范围、列、过滤器、caching 等设置对每个 Region 都生效
+     */
+    public ParallelScanner(HBaseClient client, String tableName, Scan scan, boolean ordered) throws IOException {
+        this(client, tableName, Collections.singletonList(scan), ordered, null);
+    }
+
+    /**
+     * 并行执行一组行键范围互不重叠、按行键排列的 scan（如加盐表每个桶一个 scan），每个 scan 再按 Region 切分
+     * @param sortKey 有序模式下由行键得到排序键，为 null 时按行键排序
+     */
+    public ParallelScanner(HBaseClient client, String tableName, List<Scan> scans, boolean ordered,
+                           UnaryOperator<byte[]> sortKey) throws IOException {
+        this.ranges = splitByRegion(client, tableName, scans);
+        this.lastRows = new byte[ranges.size()][];
+        this.ordered = ordered;
+        this.sortKey = ordered ? sortKey : null;
+        this.limit = scans.isEmpty() ? -1 : scans.get(0).getLimit();
+        this.client = client;
+        this.tableName = tableName;
+
+        Configuration conf = client.getConfiguration();
+        if (this.sortKey != null && ranges.size() > conf.getInt(MERGE_MAX_THREADS_KEY, DEFAULT_MERGE_MAX_THREADS)) {
+            // 范围太多，不为每个范围开一个线程，next() 时直接从各范围的扫描器归并
+            this.pool = null;
+            return;
+        }
+        int queueSize = conf.getInt(QUEUE_SIZE_KEY, DEFAULT_QUEUE_SIZE);
+        int threads = this.sortKey != null ? ranges.size()
+                : Math.min(ranges.size(), conf.getInt(THREADS_KEY, DEFAULT_THREADS));
+        this.pool = Executors.newFixedThreadPool(Math.max(threads, 1));
+
+        if (ordered) {
+            int perRange = Math.max(1, queueSize / Math.max(ranges.size(), 1));
+            for (int i = 0; i < ranges.size(); i++) {
+                queues.add(new ArrayBlockingQueue<>(perRange));
+            }
+        } else {
+            queues.add(new ArrayBlockingQueue<>(Math.max(1, queueSize)));
+        }
+        running = ranges.size();
+        for (int i = 0; i < ranges.size(); i++) {
+            int index = i;
+            BlockingQueue<Entry> queue = queues.get(ordered ? i : 0);
+            pool.submit(() -> scanRange(client, tableName, index, queue));
+        }
+        // 已提交的扫描继续执行，全部结束后线程池自动退出
+        pool.shutdown();
+    }
+
+    // 把每个 scan 与表的 Region 边界求交，得到按行键排列的子范围
+    private static List<Scan> splitByRegion(HBaseClient client, String tableName, List<Scan> scans) throws IOException {
+        Pair<byte[][], byte[][]> keys;
+        try (RegionLocator locator = client.getConnection().getRegionLocator(TableName.valueOf(tableName))) {
+            keys = locator.getStartEndKeys();
+        }
+        byte[][] startKeys = keys.getFirst();
+        byte[][] endKeys = keys.getSecond();
+        List<Scan> ranges = new ArrayList<>();
+        for (Scan scan : scans) {
+            byte[] start = scan.getStartRow();
+            byte[] stop = scan.getStopRow();
+            for (int i = 0; i < startKeys.length; i++) {
+                // 空的起止行键表示不限
+                boolean beforeStop = stop.length == 0 || Bytes.compareTo(startKeys[i], stop) < 0;
+                boolean afterStart = endKeys[i].length == 0 || Bytes.compareTo(endKeys[i], start) > 0;
+                if (!beforeStop || !afterStart) {
+                    continue;
+                }
+                Scan range = new Scan(scan);
+                range.withStartRow(Bytes.compareTo(startKeys[i], start) > 0 ? startKeys[i] : start);
+                if (endKeys[i].length > 0 && (stop.length == 0 || Bytes.compareTo(endKeys[i], stop) < 0)) {
+                    range.withStopRow(endKeys[i]);
+                } else {
+                    range.withStopRow(stop);
+                }
+                ranges.add(range);
+            }
+        }
+        return ranges;
+    }
+
+    private Void scanRange(HBaseClient client, String tableName, int range, BlockingQueue<Entry> queue) {
+        try (Table table = client.table(tableName);
+             ResultScanner scanner = table.getScanner(ranges.get(range))) {
+            for (Result result = scanner.next(); result != null && !closed; result = scanner.next()) {
+                queue.put(new Entry(result, range));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Throwable t) {
+            error.compareAndSet(null, t);
+        }
+        try {
+            queue.put(END);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+
+    /**
+     * 返回下一行，全部扫描完（或达到 Scan 的 limit）时返回 null
+     */
+    public Result next() throws IOException {
+        if (closed || limitReached) {
+            return null;
+        }
+        Entry entry;
+        if (!ordered) {
+            entry = nextUnordered();
+        } else if (sortKey == null) {
+            entry = nextInRangeOrder();
+        } else {
+            entry = nextMerged();
+        }
+        if (entry == null) {
+            return null;
+        }
+        // 同一范围内一行拆出的多个 Result 是连续的，与该范围上一行比较即可判断是否换行
+        byte[] row = entry.result.getRow();
+        if (lastRows[entry.range] == null || !Bytes.equals(lastRows[entry.range], row)) {
+            if (limit > 0 && rows >= limit) {
+                limitReached = true;
+                return null;
+            }
+            rows++;
+            lastRows[entry.range] = row;
+        }
+        return entry.result;
+    }
+
+    private Entry nextUnordered() throws IOException {
+        while (running > 0) {
+            Entry entry = take(queues.get(0));
+            if (entry != END) {
+                return entry;
+            }
+            running--;
+        }
+        return null;
+    }
+
+    private Entry nextInRangeOrder() throws IOException {
+        while (current < queues.size()) {
+            Entry entry = take(queues.get(current));
+            if (entry != END) {
+                return entry;
+            }
+            current++;
+        }
+        return null;
+    }
+
+    private Entry nextMerged() throws IOException {
+        if (heads == null) {
+            if (pool == null) {
+                openScanners();
+            }
+            heads = new PriorityQueue<>(Math.max(ranges.size(), 1), (a, b) -> Bytes.compareTo(a.key, b.key));
+            for (int i = 0; i < ranges.size(); i++) {
+                offerHead(i);
+            }
+        }
+        Head head = heads.poll();
+        if (head == null) {
+            return null;
+        }
+        offerHead(head.range);
+        return head;
+    }
+
+    // 在调用线程中打开各范围的扫描器
+    private void openScanners() throws IOException {
+        table = client.table(tableName);
+        scanners = new ArrayList<>(ranges.size());
+        for (Scan range : ranges) {
+            scanners.add(table.getScanner(range));
+        }
+    }
+
+    private void offerHead(int range) throws IOException {
+        Result result;
+        if (scanners != null) {
+            result = scanners.get(range).next();
+        } else {
+            Entry entry = take(queues.get(range));
+            result = entry == END ? null : entry.result;
+        }
+        if (result != null) {
+            heads.add(new Head(result, sortKey.apply(result.getRow()), range));
+        }
+    }
+
+    // 从队列取一个结果，等待期间有扫描线程出错时抛出异常
+    private Entry take(BlockingQueue<Entry> queue) throws IOException {
+        try {
+            while (true) {
+                Throwable t = error.get();
+                if (t != null) {
+                    close();
+                    throw t instanceof IOException ? (IOException) t : new IOException("并行扫描出错", t);
+                }
+                Entry entry = queue.poll(POLL_MS, TimeUnit.MILLISECONDS);
+                if (entry != null) {
+                    return entry;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new InterruptedIOException("并行扫描被中断");
+        }
+    }
+
+    /**
+     * 扫描被切分成的范围数
+     */
+    public int getRanges() {
+        return ranges.size();
+    }
+
+    /**
+     * 已返回的行数，batch 拆开的同一行只计一次
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            if (pool != null) {
+                // 中断阻塞在队列上的扫描线程
+                pool.shutdownNow();
+            }
+            if (scanners != null) {
+                scanners.forEach(ResultScanner::close);
+            }
+            if (table != null) {
+                try {
+                    table.close();
+                } catch (IOException ignored) {
+                    // 只是释放资源
+                }
+            }
+        }
+    }
+}
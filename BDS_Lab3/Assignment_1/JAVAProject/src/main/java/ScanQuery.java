@@ -0,0 +1,223 @@
+/**
+ * 扫描查询条件。
+ *
+ * 默认的 new Scan() 会把整张表的所有列都传回客户端，再由客户端逐行筛选。
+ * ScanQuery 把查询条件都转换到 Scan 上，由 RegionServer 在服务端完成：
+ *   行键范围     —— startRow / stopRow / rowPrefix，只扫描相关的 Region 和数据块；
+ *   列投影       —— column("列族:列") 或 column("列族")，只返回需要的列；
+ *   值过滤       —— where / whereValuePrefix，转换为 SingleColumnValueFilter（不含该列的行也被过滤掉），
+ *                   过滤依据的列未被投影时会自动加入投影，并随结果一起返回；
+ *   caching / batch / limit —— 每次 RPC 返回的行数、每个 Result 的最大单元格数、最多返回的行数。
+ * 值按字节序比较，HBase 中的数值以字符串存储时，只有位数相同才与数值大小一致（如两位数的成绩）。
+ *
+ * 例：学号 2015001 成绩大于 80 的选课记录
+ *   ScanQuery.create().rowPrefix("2015001_").column("info:SC_Score")
+ *            .where("info:SC_Score", CompareOperator.GREATER, "80")
+ */
+
+import org.apache.hadoop.hbase.CompareOperator;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.filter.BinaryComparator;
+import org.apache.hadoop.hbase.filter.BinaryPrefixComparator;
+import org.apache.hadoop.hbase.filter.ByteArrayComparable;
+import org.apache.hadoop.hbase.filter.FilterList;
+import org.apache.hadoop.hbase.filter.SingleColumnValueFilter;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class ScanQuery {
+
+    private byte[] startRow;
+    private byte[] stopRow;
+    private final List<byte[][]> columns = new ArrayList<>();
+    private final List<SingleColumnValueFilter> filters = new ArrayList<>();
+    private int caching = -1;
+    private int batch = -1;
+    private int limit = -1;
+
+    public static ScanQuery create() {
+        return new ScanQuery();
+    }
+
+    /**
+     * 起始行键（包含）
+     */
+    public ScanQuery startRow(String row) {
+        this.startRow = Bytes.toBytes(row);
+        return this;
+    }
+
+    /**
+     * 结束行键（不包含）
+     */
+    public ScanQuery stopRow(String row) {
+        this.stopRow = Bytes.toBytes(row);
+        return this;
+    }
+
+    /**
+     * 只扫描以 prefix 开头的行键，转换为 [prefix, prefix 的下一个前缀) 的行键范围
+     */
+    public ScanQuery rowPrefix(String prefix) {
+        byte[] bytes = Bytes.toBytes(prefix);
+        this.startRow = bytes;
+        this.stopRow = nextPrefix(bytes);
+        return this;
+    }
+
+    /**
+     * 投影的列，"列族:列" 为单列，不含冒号时为整个列族；不调用时返回全部列
+     */
+    public ScanQuery column(String column) {
+        columns.add(parseColumn(column));
+        return this;
+    }
+
+    /**
+     * 只返回 column 的值与 value 满足 op 的行
+     */
+    public ScanQuery where(String column, CompareOperator op, String value) {
+        return addFilter(column, op, new BinaryComparator(Bytes.toBytes(value)));
+    }
+
+    /**
+     * 只返回 column 的值以 prefix 开头的行
+     */
+    public ScanQuery whereValuePrefix(String column, String prefix) {
+        return addFilter(column, CompareOperator.EQUAL, new BinaryPrefixComparator(Bytes.toBytes(prefix)));
+    }
+
+    private ScanQuery addFilter(String column, CompareOperator op, ByteArrayComparable comparator) {
+        byte[][] parsed = parseColumn(column);
+        if (parsed[1] == null) {
+            throw new IllegalArgumentException("值过滤的列格式应为 列族:列，实际为 " + column);
+        }
+        SingleColumnValueFilter filter = new SingleColumnValueFilter(parsed[0], parsed[1], op, comparator);
+        filter.setFilterIfMissing(true);
+        filter.setLatestVersionOnly(true);
+        filters.add(filter);
+        return this;
+    }
+
+    /**
+     * 每次 RPC 从 RegionServer 取回的行数
+     */
+    public ScanQuery caching(int caching) {
+        this.caching = caching;
+        return this;
+    }
+
+    /**
+     * 每个 Result 最多包含的单元格数，宽行会被拆成多个 Result；不能与值过滤同时使用
+     */
+    public ScanQuery batch(int batch) {
+        this.batch = batch;
+        return this;
+    }
+
+    /**
+     * 最多返回的行数，达到后 RegionServer 停止扫描
+     */
+    public ScanQuery limit(int limit) {
+        this.limit = limit;
+        return this;
+    }
+
+    public byte[] getStartRow() {
+        return startRow;
+    }
+
+    public byte[] getStopRow() {
+        return stopRow;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * 转换为 Scan
+     */
+    public Scan toScan() {
+        if (batch > 0 && !filters.isEmpty()) {
+            // SingleColumnValueFilter 需要看到整行才能决定取舍，HBase 不允许与 batch 同时使用
+            throw new IllegalArgumentException("batch 不能与值过滤同时使用");
+        }
+        Scan scan = new Scan();
+        if (startRow != null) {
+            scan.withStartRow(startRow);
+        }
+        if (stopRow != null) {
+            scan.withStopRow(stopRow);
+        }
+        for (byte[][] column : columns) {
+            addColumn(scan, column);
+        }
+        if (!columns.isEmpty()) {
+            // 过滤依据的列必须被扫描到，否则 SingleColumnValueFilter 会把所有行当作缺少该列
+            for (SingleColumnValueFilter filter : filters) {
+                if (!isProjected(filter.getFamily(), filter.getQualifier())) {
+                    scan.addColumn(filter.getFamily(), filter.getQualifier());
+                }
+            }
+        }
+        if (filters.size() == 1) {
+            scan.setFilter(filters.get(0));
+        } else if (filters.size() > 1) {
+            scan.setFilter(new FilterList(FilterList.Operator.MUST_PASS_ALL, new ArrayList<>(filters)));
+        }
+        if (caching > 0) {
+            scan.setCaching(caching);
+        }
+        if (batch > 0) {
+            scan.setBatch(batch);
+        }
+        if (limit > 0) {
+            scan.setLimit(limit);
+        }
+        return scan;
+    }
+
+    private static void addColumn(Scan scan, byte[][] column) {
+        if (column[1] == null) {
+            scan.addFamily(column[0]);
+        } else {
+            scan.addColumn(column[0], column[1]);
+        }
+    }
+
+    private boolean isProjected(byte[] family, byte[] qualifier) {
+        for (byte[][] column : columns) {
+            if (Bytes.equals(column[0], family) && (column[1] == null || Bytes.equals(column[1], qualifier))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // "列族:列" 解析为 {列族, 列}，不含冒号时列为 null
+    private static byte[][] parseColumn(String column) {
+        int colon = column.indexOf(':');
+        if (colon < 0) {
+            return new byte[][]{Bytes.toBytes(column), null};
+        }
+        return new byte[][]{Bytes.toBytes(column.substring(0, colon)), Bytes.toBytes(column.substring(colon + 1))};
+    }
+
+    // 大于所有以 prefix 开头的行键的最小行键；prefix 全为 0xFF 时返回 null（扫描到表尾）
+    private static byte[] nextPrefix(byte[] prefix) {
+        int offset = prefix.length;
+        while (offset > 0 && prefix[offset - 1] == (byte) 0xFF) {
+            offset--;
+        }
+        if (offset == 0) {
+            return null;
+        }
+        byte[] next = Arrays.copyOf(prefix, offset);
+        next[offset - 1]++;
+        return next;
+    }
+}
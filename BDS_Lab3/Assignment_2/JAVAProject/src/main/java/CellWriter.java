@@ -0,0 +1,213 @@
+/**
+ * 把单元格以 TSV 或 JSON Lines 格式写到输出流，不为每个单元格复制数据。
+ *
+ * CellUtil.cloneRow / cloneFamily / cloneQualifier / cloneValue 每次都新建一个 byte[]，
+ * 再经 Bytes.toString 解码成 String，大范围扫描时每个单元格产生 8 个临时对象。
+ * CellWriter 直接从单元格底层数组（getRowArray / getRowOffset / getRowLength 等）读取字节，
+ * 边转义边写入一个复用的输出缓冲区，缓冲区满时整块写到底层流；时间戳也直接格式化到缓冲区中。
+ * HBase 中的字符串本身就是 UTF-8 字节，原样输出即可，不需要解码再编码（非 UTF-8 的二进制值会原样写出）。
+ *
+ * 每个单元格一行：
+ *   TSV  —— 行键\t列族\t列\t时间戳\t值，各字段中的 \t \n \r \\ 转义为两个字符；
+ *   JSON —— {"row":"..","family":"..","qualifier":"..","timestamp":..,"value":".."}
+ * 不是线程安全的。
+ */
+
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.client.Result;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+public class CellWriter implements Closeable, Flushable {
+
+    public enum Format {
+        TSV, JSON
+    }
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] JSON_ROW = ascii("{\"row\":\"");
+    private static final byte[] JSON_FAMILY = ascii("\",\"family\":\"");
+    private static final byte[] JSON_QUALIFIER = ascii("\",\"qualifier\":\"");
+    private static final byte[] JSON_TIMESTAMP = ascii("\",\"timestamp\":");
+    private static final byte[] JSON_VALUE = ascii(",\"value\":\"");
+    private static final byte[] JSON_END = ascii("\"}\n");
+
+    private final OutputStream out;
+    private final Format format;
+    private final int rowPrefixLength;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    private long cells;
+
+    public CellWriter(OutputStream out, Format format) {
+        this(out, format, 0);
+    }
+
+    /**
+     * @param rowPrefixLength 输出行键时跳过的前缀字节数（如加盐表的桶前缀）
+     */
+    public CellWriter(OutputStream out, Format format, int rowPrefixLength) {
+        this.out = out;
+        this.format = format;
+        this.rowPrefixLength = rowPrefixLength;
+    }
+
+    public void write(Result result) throws IOException {
+        for (Cell cell : result.rawCells()) {
+            write(cell);
+        }
+    }
+
+    public void write(Cell cell) throws IOException {
+        int skip = Math.min(rowPrefixLength, cell.getRowLength());
+        if (format == Format.TSV) {
+            writeTsv(cell.getRowArray(), cell.getRowOffset() + skip, cell.getRowLength() - skip);
+            writeByte('\t');
+            writeTsv(cell.getFamilyArray(), cell.getFamilyOffset(), cell.getFamilyLength());
+            writeByte('\t');
+            writeTsv(cell.getQualifierArray(), cell.getQualifierOffset(), cell.getQualifierLength());
+            writeByte('\t');
+            writeLong(cell.getTimestamp());
+            writeByte('\t');
+            writeTsv(cell.getValueArray(), cell.getValueOffset(), cell.getValueLength());
+            writeByte('\n');
+        } else {
+            writeRaw(JSON_ROW);
+            writeJson(cell.getRowArray(), cell.getRowOffset() + skip, cell.getRowLength() - skip);
+            writeRaw(JSON_FAMILY);
+            writeJson(cell.getFamilyArray(), cell.getFamilyOffset(), cell.getFamilyLength());
+            writeRaw(JSON_QUALIFIER);
+            writeJson(cell.getQualifierArray(), cell.getQualifierOffset(), cell.getQualifierLength());
+            writeRaw(JSON_TIMESTAMP);
+            writeLong(cell.getTimestamp());
+            writeRaw(JSON_VALUE);
+            writeJson(cell.getValueArray(), cell.getValueOffset(), cell.getValueLength());
+            writeRaw(JSON_END);
+        }
+        cells++;
+    }
+
+    public long getCells() {
+        return cells;
+    }
+
+    // 不需要转义的连续字节整段复制，遇到需要转义的字节时再逐个处理
+    private void writeTsv(byte[] bytes, int offset, int length) throws IOException {
+        int run = offset;
+        for (int i = offset; i < offset + length; i++) {
+            byte b = bytes[i];
+            if (b != '\t' && b != '\n' && b != '\r' && b != '\\') {
+                continue;
+            }
+            writeBytes(bytes, run, i - run);
+            writeEscape(b == '\t' ? 't' : b == '\n' ? 'n' : b == '\r' ? 'r' : '\\');
+            run = i + 1;
+        }
+        writeBytes(bytes, run, offset + length - run);
+    }
+
+    private void writeJson(byte[] bytes, int offset, int length) throws IOException {
+        int run = offset;
+        for (int i = offset; i < offset + length; i++) {
+            byte b = bytes[i];
+            if (b != '"' && b != '\\' && (b < 0 || b >= 0x20)) {
+                continue;
+            }
+            writeBytes(bytes, run, i - run);
+            if (b == '"' || b == '\\') {
+                writeEscape(b);
+            } else if (b == '\n') {
+                writeEscape('n');
+            } else {
+                // 其余控制字符写成 JSON 的 Unicode 转义（u00XX）
+                writeEscape('u');
+                writeByte('0');
+                writeByte('0');
+                writeByte(HEX[b >> 4]);
+                writeByte(HEX[b & 0xF]);
+            }
+            run = i + 1;
+        }
+        writeBytes(bytes, run, offset + length - run);
+    }
+
+    private void writeEscape(int c) throws IOException {
+        writeByte('\\');
+        writeByte(c);
+    }
+
+    // 直接把十进制数字写进缓冲区，避免 Long.toString 创建 String
+    private void writeLong(long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            writeRaw(ascii(Long.toString(value)));
+            return;
+        }
+        if (value < 0) {
+            writeByte('-');
+            value = -value;
+        }
+        long divisor = 1;
+        while (value / divisor >= 10) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            writeByte('0' + (int) (value / divisor % 10));
+        }
+    }
+
+    private void writeRaw(byte[] bytes) throws IOException {
+        writeBytes(bytes, 0, bytes.length);
+    }
+
+    private void writeBytes(byte[] bytes, int offset, int length) throws IOException {
+        while (length > 0) {
+            if (position == buffer.length) {
+                drain();
+            }
+            int n = Math.min(length, buffer.length - position);
+            System.arraycopy(bytes, offset, buffer, position, n);
+            position += n;
+            offset += n;
+            length -= n;
+        }
+    }
+
+    private void writeByte(int b) throws IOException {
+        if (position == buffer.length) {
+            drain();
+        }
+        buffer[position++] = (byte) b;
+    }
+
+    private void drain() throws IOException {
+        out.write(buffer, 0, position);
+        position = 0;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    /**
+     * 写出缓冲区中剩余的数据并关闭底层流
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+        } finally {
+            out.close();
+        }
+    }
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+}
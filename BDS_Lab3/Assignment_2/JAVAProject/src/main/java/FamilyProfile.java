@@ -0,0 +1,108 @@
+/**
+ * 列族调优配置。
+ *
+ * HColumnDescriptor 默认不压缩、不做数据块编码，布隆过滤器和块大小也都是默认值。
+ * 这里按访问模式给出几组预设：
+ *   DEFAULT     —— 全部默认值（原来的行为）；
+ *   POINT_READ  —— 点查为主：ROWCOL 布隆过滤器、16KB 小数据块、FAST_DIFF 编码、IN_MEMORY 优先缓存；
+ *   SCAN        —— 扫描分析为主：256KB 大数据块、FAST_DIFF 编码、较高压缩率（GZ 优先），不使用布隆过滤器；
+ *   WRITE_LOG   —— 写多读少的日志类数据：64KB 数据块、PREFIX 编码、低 CPU 开销的压缩（LZ4/Snappy 优先）、ROW 布隆过滤器。
+ * 压缩算法按优先顺序选择本机可用的第一个（Snappy/LZ4 依赖 Hadoop 本地库），都不可用时不压缩。
+ * 可用性在客户端本地检测，伪分布式环境下与 RegionServer 一致；若 RegionServer 缺少对应的本地库，建表时会被拒绝。
+ */
+
+import org.apache.hadoop.hbase.HColumnDescriptor;
+import org.apache.hadoop.hbase.io.compress.Compression;
+import org.apache.hadoop.hbase.io.encoding.DataBlockEncoding;
+import org.apache.hadoop.hbase.regionserver.BloomType;
+import org.apache.hadoop.hbase.util.CompressionTest;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public enum FamilyProfile {
+
+    DEFAULT("默认", null, null, null, 0, false),
+    POINT_READ("点查为主", new Compression.Algorithm[]{Compression.Algorithm.SNAPPY, Compression.Algorithm.LZ4, Compression.Algorithm.GZ},
+            DataBlockEncoding.FAST_DIFF, BloomType.ROWCOL, 16 * 1024, true),
+    SCAN("扫描分析为主", new Compression.Algorithm[]{Compression.Algorithm.GZ, Compression.Algorithm.SNAPPY, Compression.Algorithm.LZ4},
+            DataBlockEncoding.FAST_DIFF, BloomType.NONE, 256 * 1024, false),
+    WRITE_LOG("写多读少的日志", new Compression.Algorithm[]{Compression.Algorithm.LZ4, Compression.Algorithm.SNAPPY, Compression.Algorithm.GZ},
+            DataBlockEncoding.PREFIX, BloomType.ROW, 64 * 1024, false);
+
+    // 本机压缩算法可用性检测结果缓存
+    private static final Map<Compression.Algorithm, Boolean> AVAILABLE = new ConcurrentHashMap<>();
+
+    private final String description;
+    private final Compression.Algorithm[] compressions;
+    private final DataBlockEncoding encoding;
+    private final BloomType bloom;
+    private final int blockSize;
+    private final boolean inMemory;
+
+    FamilyProfile(String description, Compression.Algorithm[] compressions, DataBlockEncoding encoding,
+                  BloomType bloom, int blockSize, boolean inMemory) {
+        this.description = description;
+        this.compressions = compressions;
+        this.encoding = encoding;
+        this.bloom = bloom;
+        this.blockSize = blockSize;
+        this.inMemory = inMemory;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * 按优先顺序返回本机可用的第一个压缩算法，都不可用时返回 NONE
+     */
+    public Compression.Algorithm compression() {
+        if (compressions == null) {
+            return Compression.Algorithm.NONE;
+        }
+        for (Compression.Algorithm algorithm : compressions) {
+            if (AVAILABLE.computeIfAbsent(algorithm, FamilyProfile::isAvailable)) {
+                return algorithm;
+            }
+        }
+        return Compression.Algorithm.NONE;
+    }
+
+    private static boolean isAvailable(Compression.Algorithm algorithm) {
+        try {
+            CompressionTest.testCompression(algorithm);
+            return true;
+        } catch (IOException | RuntimeException | UnsatisfiedLinkError e) {
+            return false;
+        }
+    }
+
+    /**
+     * 把本配置应用到列族描述符上（DEFAULT 不做任何修改）
+     */
+    public HColumnDescriptor apply(HColumnDescriptor family) {
+        if (this == DEFAULT) {
+            return family;
+        }
+        family.setCompressionType(compression());
+        family.setDataBlockEncoding(encoding);
+        family.setBloomFilterType(bloom);
+        family.setBlocksize(blockSize);
+        family.setInMemory(inMemory);
+        return family;
+    }
+
+    /**
+     * 按本配置创建列族描述符
+     */
+    public HColumnDescriptor newFamily(String name) {
+        return apply(new HColumnDescriptor(name));
+    }
+
+    @Override
+    public String toString() {
+        return name() + "(" + description + ")";
+    }
+}
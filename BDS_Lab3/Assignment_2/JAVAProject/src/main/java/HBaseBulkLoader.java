@@ -0,0 +1,264 @@
+/**
+ * 通过生成 HFile 批量导入 CSV / TSV 文件（bulk load），用于 Student / Course / SC 等表的初次大批量导入。
+ *
+ * HBaseCsvLoader 逐行生成 Put，每行都要写 WAL、进 MemStore，MemStore 刷写出大量小文件后又引发频繁的合并（compaction）。
+ * HBaseBulkLoader 分两步：
+ *   1. 用本地 MapReduce（与 BDS_Lab4 中的作业相同，mapreduce.framework.name=local）离线生成 HFile：
+ *      Map 把每行转换成 Put，HFileOutputFormat2.configureIncrementalLoad 按目标表当前的 Region 边界
+ *      设置全排序分区（TotalOrderPartitioner）和排序 Reduce，每个 Region 一个 Reduce，输出按行键有序的 HFile；
+ *   2. 用 BulkLoadHFiles 把 HFile 直接移入各 Region 的 Store。每个 Region 的文件通过一次 bulkLoadHFiles 调用
+ *      原子地加入（读请求要么看到该批文件的全部数据，要么一点也看不到），不经过 WAL 和 MemStore；
+ *      生成 HFile 之后 Region 发生了分裂时，跨越边界的文件会先被切分再导入。
+ *
+ * 输入格式与 HBaseCsvLoader 相同：第一行为表头，第一列为行键，其余列为 "列族:列"（省略列族时为 info）；
+ * 文件名以 .tsv 结尾时按制表符切分，否则按逗号切分。目标表行键加盐时传入对应的 RowKeySalter。
+ * load 只负责导入，不读取表的加盐设置，也不维护行缓存和二级索引；命令行入口和 MyHBase.bulkLoad 会处理这些。
+ * 中间文件写在 myhbase.bulkload.dir 目录（默认本地文件系统的 file:///tmp/myhbase-bulkload）下，导入成功后删除；
+ * 导入失败时保留，可以排除问题后用 BulkLoadHFiles（hbase completebulkload <目录> <表名>）重新导入。
+ * 中间目录与 HBase 不在同一个文件系统时，导入会把 HFile 拷贝到 HBase 的文件系统中；
+ * HBase 使用 HDFS 时可把该目录设为同一 HDFS 上的路径（如 hdfs://namenode:9000/tmp/myhbase-bulkload），导入时只需移动文件。
+ * 依赖 hbase-mapreduce（HFileOutputFormat2）和 hadoop-mapreduce-client-*。
+ *
+ * 用法：
+ *   java -cp build/libs/MyHBase.jar HBaseBulkLoader <表名> <CSV/TSV 文件> [<表名> <文件> ...]
+ */
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.RegionLocator;
+import org.apache.hadoop.hbase.client.Table;
+import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
+import org.apache.hadoop.hbase.mapreduce.HFileOutputFormat2;
+import org.apache.hadoop.hbase.tool.BulkLoadHFiles;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.Mapper;
+import org.apache.hadoop.mapreduce.TaskCounter;
+import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
+import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class HBaseBulkLoader {
+
+    private static final Logger MY_LOGGER = LoggerFactory.getLogger("my.own.logger");
+
+    public static final String STAGING_DIR_KEY = "myhbase.bulkload.dir";
+    public static final String DEFAULT_STAGING_DIR = "file:///tmp/myhbase-bulkload";
+
+    // 传给 Map 任务的参数
+    private static final String HEADER_KEY = "myhbase.bulkload.header";
+    private static final String DELIMITER_KEY = "myhbase.bulkload.delimiter";
+    private static final String SALT_BUCKETS_KEY = "myhbase.bulkload.salt.buckets";
+    private static final String DEFAULT_FAMILY = "info";
+
+    // Map 任务中跳过的行数
+    public enum Counters {
+        BAD_LINES
+    }
+
+    /**
+     * 导入结果
+     */
+    public static class Result {
+        private final long rows;
+        private final long skipped;
+        private final long generateNanos;
+        private final long loadNanos;
+
+        Result(long rows, long skipped, long generateNanos, long loadNanos) {
+            this.rows = rows;
+            this.skipped = skipped;
+            this.generateNanos = generateNanos;
+            this.loadNanos = loadNanos;
+        }
+
+        public long getRows() {
+            return rows;
+        }
+
+        /**
+         * 列数与表头不一致而跳过的行数
+         */
+        public long getSkipped() {
+            return skipped;
+        }
+
+        /**
+         * MapReduce 生成 HFile 的耗时（秒）
+         */
+        public double getGenerateSeconds() {
+            return generateNanos / 1e9;
+        }
+
+        /**
+         * 把 HFile 导入表的耗时（秒）
+         */
+        public double getLoadSeconds() {
+            return loadNanos / 1e9;
+        }
+
+        public double getSeconds() {
+            return (generateNanos + loadNanos) / 1e9;
+        }
+
+        public double getRowsPerSecond() {
+            return rows / Math.max(getSeconds(), 1e-9);
+        }
+    }
+
+    /**
+     * Map：把一行 CSV / TSV 转换成 <行键, Put>，表头和空行跳过
+     */
+    public static class LineMapper extends Mapper<LongWritable, Text, ImmutableBytesWritable, Put> {
+        private String delimiter;
+        private int columns;
+        private byte[][] families;
+        private byte[][] qualifiers;
+        private RowKeySalter salter;
+        private final ImmutableBytesWritable outKey = new ImmutableBytesWritable();
+
+        @Override
+        protected void setup(Context context) {
+            Configuration conf = context.getConfiguration();
+            delimiter = conf.get(DELIMITER_KEY, ",");
+            String[] header = conf.get(HEADER_KEY).split(delimiter, -1);
+            columns = header.length;
+            families = new byte[columns][];
+            qualifiers = new byte[columns][];
+            for (int i = 1; i < columns; i++) {
+                String column = header[i].trim();
+                int colon = column.indexOf(':');
+                families[i] = Bytes.toBytes(colon < 0 ? DEFAULT_FAMILY : column.substring(0, colon));
+                qualifiers[i] = Bytes.toBytes(colon < 0 ? column : column.substring(colon + 1));
+            }
+            int buckets = conf.getInt(SALT_BUCKETS_KEY, 0);
+            salter = buckets > 0 ? new RowKeySalter(buckets) : null;
+        }
+
+        @Override
+        protected void map(LongWritable offset, Text line, Context context) throws IOException, InterruptedException {
+            // 文件开头的表头
+            if (offset.get() == 0 || line.getLength() == 0) {
+                return;
+            }
+            String[] values = line.toString().split(delimiter, -1);
+            if (values.length != columns) {
+                context.getCounter(Counters.BAD_LINES).increment(1);
+                return;
+            }
+            byte[] row = Bytes.toBytes(values[0]);
+            Put put = new Put(salter == null ? row : salter.salt(row));
+            for (int i = 1; i < columns; i++) {
+                if (!values[i].isEmpty()) {
+                    put.addColumn(families[i], qualifiers[i], Bytes.toBytes(values[i]));
+                }
+            }
+            if (!put.isEmpty()) {
+                outKey.set(put.getRow());
+                context.write(outKey, put);
+            }
+        }
+    }
+
+    /**
+     * 批量导入一个 CSV / TSV 文件
+     */
+    public static Result load(HBaseClient client, String tableName, Path input) throws IOException {
+        return load(client, tableName, input, null);
+    }
+
+    /**
+     * 批量导入一个 CSV / TSV 文件；salter 不为 null 时对行键加盐
+     */
+    public static Result load(HBaseClient client, String tableName, Path input, RowKeySalter salter) throws IOException {
+        String delimiter = input.getFileName().toString().toLowerCase().endsWith(".tsv") ? "\t" : ",";
+        String header;
+        try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8)) {
+            header = reader.readLine();
+        }
+        if (header == null) {
+            return new Result(0, 0, 0, 0);
+        }
+
+        Configuration conf = new Configuration(client.getConfiguration());
+        // 本地运行 MapReduce，不依赖 YARN
+        conf.set("mapreduce.framework.name", "local");
+        conf.set(HEADER_KEY, header);
+        conf.set(DELIMITER_KEY, delimiter);
+        conf.setInt(SALT_BUCKETS_KEY, salter == null ? 0 : salter.getBuckets());
+        org.apache.hadoop.fs.Path staging = new org.apache.hadoop.fs.Path(
+                conf.get(STAGING_DIR_KEY, DEFAULT_STAGING_DIR), tableName + "-" + System.currentTimeMillis());
+        FileSystem fs = staging.getFileSystem(conf);
+        boolean loaded = false;
+
+        TableName tn = TableName.valueOf(tableName);
+        try (Table table = client.table(tableName);
+             RegionLocator locator = client.getConnection().getRegionLocator(tn)) {
+            // 1. MapReduce 生成按 Region 切分、按行键排序的 HFile
+            long start = System.nanoTime();
+            Job job = Job.getInstance(conf, "Bulk load " + input.getFileName() + " into " + tableName);
+            job.setJarByClass(HBaseBulkLoader.class);
+            job.setMapperClass(LineMapper.class);
+            job.setMapOutputKeyClass(ImmutableBytesWritable.class);
+            job.setMapOutputValueClass(Put.class);
+            FileInputFormat.addInputPath(job, new org.apache.hadoop.fs.Path(input.toAbsolutePath().toUri()));
+            FileOutputFormat.setOutputPath(job, staging);
+            HFileOutputFormat2.configureIncrementalLoad(job, table.getDescriptor(), locator);
+            if (!job.waitForCompletion(false)) {
+                throw new IOException("生成 HFile 的 MapReduce 作业失败: " + job.getStatus().getFailureInfo());
+            }
+            long rows = job.getCounters().findCounter(TaskCounter.MAP_OUTPUT_RECORDS).getValue();
+            long skipped = job.getCounters().findCounter(Counters.BAD_LINES).getValue();
+            long generated = System.nanoTime() - start;
+
+            // 2. 把 HFile 移入各 Region
+            start = System.nanoTime();
+            BulkLoadHFiles.create(conf).bulkLoad(tn, staging);
+            long loadNanos = System.nanoTime() - start;
+            loaded = true;
+            if (skipped > 0) {
+                MY_LOGGER.warn("{} 中有 {} 行列数与表头不一致，已跳过", input, skipped);
+            }
+            return new Result(rows, skipped, generated, loadNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("批量导入被中断");
+        } catch (ClassNotFoundException e) {
+            throw new IOException("生成 HFile 的 MapReduce 作业失败", e);
+        } finally {
+            if (loaded) {
+                fs.delete(staging, true);
+            } else if (fs.exists(staging)) {
+                // 已生成的 HFile 保留下来，可以直接重新导入，不必再跑一遍 MapReduce
+                MY_LOGGER.warn("向表 {} 批量导入失败，中间文件保留在 {}", tableName, fs.makeQualified(staging));
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length % 2 != 0) {
+            MY_LOGGER.error("用法: HBaseBulkLoader <表名> <CSV/TSV 文件> [<表名> <文件> ...]");
+            return;
+        }
+        // 经由 MyHBase 导入：按表描述符为行键加盐，导入后使行缓存失效并重建二级索引
+        try {
+            for (int i = 0; i < args.length; i += 2) {
+                MyHBase.bulkLoad(args[i], args[i + 1]);
+            }
+        } finally {
+            MyHBase.close();
+        }
+    }
+}
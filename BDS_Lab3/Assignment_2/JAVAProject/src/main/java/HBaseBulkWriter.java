@@ -0,0 +1,134 @@
+/**
+ * 基于 BufferedMutator 的批量写入器。
+ *
+ * addRecord 原来为一行的每个字段单独创建 Put 并调用 table.put，10 个字段就是 10 次 RPC。
+ * 这里把一行的所有列合并成一个 Put，再交给 BufferedMutator：
+ * Put 先进入客户端写缓冲区，缓冲区满（myhbase.write.buffer.size）或到达定时刷新间隔
+ * （myhbase.write.flush.interval.ms）时，按 RegionServer 分组批量发送。
+ * 写入失败的 Mutation 由 ExceptionListener 收集，不会中断后续写入；flush()/close() 后可查看失败数和失败原因。
+ *
+ * BufferedMutator 是线程安全的，同一个 HBaseBulkWriter 可以被多个线程共用。
+ */
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.BufferedMutator;
+import org.apache.hadoop.hbase.client.BufferedMutatorParams;
+import org.apache.hadoop.hbase.client.Mutation;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.RetriesExhaustedWithDetailsException;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class HBaseBulkWriter implements Closeable {
+
+    private static final Logger MY_LOGGER = LoggerFactory.getLogger("my.own.logger");
+
+    public static final String WRITE_BUFFER_SIZE_KEY = "myhbase.write.buffer.size";
+    public static final long DEFAULT_WRITE_BUFFER_SIZE = 8L * 1024 * 1024;
+    public static final String FLUSH_INTERVAL_KEY = "myhbase.write.flush.interval.ms";
+    public static final long DEFAULT_FLUSH_INTERVAL_MS = 1000;
+
+    // 最多保留的失败明细条数，避免大量失败时占满内存
+    private static final int MAX_FAILURE_DETAILS = 100;
+
+    private final BufferedMutator mutator;
+    private final AtomicLong rows = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final List<String> failures = Collections.synchronizedList(new ArrayList<>());
+
+    public HBaseBulkWriter(HBaseClient client, String tableName) throws IOException {
+        Configuration conf = client.getConfiguration();
+        BufferedMutatorParams params = new BufferedMutatorParams(TableName.valueOf(tableName))
+                .writeBufferSize(conf.getLong(WRITE_BUFFER_SIZE_KEY, DEFAULT_WRITE_BUFFER_SIZE))
+                .setWriteBufferPeriodicFlushTimeoutMs(conf.getLong(FLUSH_INTERVAL_KEY, DEFAULT_FLUSH_INTERVAL_MS))
+                .listener(this::onException);
+        this.mutator = client.getConnection().getBufferedMutator(params);
+    }
+
+    // 写缓冲区提交失败时回调，逐条记录失败的行
+    private void onException(RetriesExhaustedWithDetailsException e, BufferedMutator mutator) {
+        int n = e.getNumExceptions();
+        failed.addAndGet(n);
+        for (int i = 0; i < n && failures.size() < MAX_FAILURE_DETAILS; i++) {
+            failures.add(Bytes.toString(e.getRow(i).getRow()) + ": " + e.getCause(i));
+        }
+        MY_LOGGER.error("表 {} 有 {} 条写入失败", mutator.getName(), n);
+    }
+
+    /**
+     * 把一行的所有字段合并成一个 Put
+     * @param fields 每个元素格式为 "列族:列"
+     */
+    public static Put toPut(String row, String[] fields, String[] values) {
+        return toPut(Bytes.toBytes(row), fields, values);
+    }
+
+    public static Put toPut(byte[] row, String[] fields, String[] values) {
+        if (fields.length != values.length) {
+            throw new IllegalArgumentException("字段数 " + fields.length + " 与值的个数 " + values.length + " 不一致");
+        }
+        Put put = new Put(row);
+        for (int i = 0; i < fields.length; i++) {
+            int colon = fields[i].indexOf(':');
+            if (colon < 0) {
+                throw new IllegalArgumentException("字段格式应为 列族:列，实际为 " + fields[i]);
+            }
+            put.addColumn(Bytes.toBytes(fields[i].substring(0, colon)),
+                    Bytes.toBytes(fields[i].substring(colon + 1)), Bytes.toBytes(values[i]));
+        }
+        return put;
+    }
+
+    /**
+     * 写入一行（进入写缓冲区，不等待服务端确认）
+     */
+    public void addRecord(String row, String[] fields, String[] values) throws IOException {
+        add(toPut(row, fields, values));
+    }
+
+    /**
+     * 写入一个 Put 或 Delete
+     */
+    public void add(Mutation mutation) throws IOException {
+        mutator.mutate(mutation);
+        rows.incrementAndGet();
+    }
+
+    /**
+     * 立即发送缓冲区中的全部写入
+     */
+    public void flush() throws IOException {
+        mutator.flush();
+    }
+
+    public long getRows() {
+        return rows.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    /**
+     * 失败明细（最多保留前 100 条）
+     */
+    public List<String> getFailures() {
+        synchronized (failures) {
+            return new ArrayList<>(failures);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        mutator.close();
+    }
+}
@@ -0,0 +1,134 @@
+/**
+ * 把 CSV 文件批量导入 HBase 表（Student / Course / SC 等）。
+ *
+ * CSV 第一行为表头：第一列是行键（列名任意），其余列为 "列族:列"，省略列族时默认为 info，例如
+ *   S_No,info:S_Name,info:S_Sex,info:S_Age
+ *   2015001,Zhangsan,male,23
+ * 每行合并成一个 Put，通过 HBaseBulkWriter（BufferedMutator）批量写入。
+ * 字段按逗号切分，不支持带引号、内含逗号的字段；空值的列不写入。
+ * 目标表行键加盐时，传入对应的 RowKeySalter，导入时为每个行键加上桶前缀。
+ * load 只负责写入，不读取表的加盐设置，也不维护行缓存和二级索引；命令行入口和 MyHBase.loadCSV 会处理这些。
+ *
+ * 用法：
+ *   java -cp build/libs/MyHBase.jar HBaseCsvLoader <表名> <CSV 文件> [<表名> <CSV 文件> ...]
+ */
+
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class HBaseCsvLoader {
+
+    private static final Logger MY_LOGGER = LoggerFactory.getLogger("my.own.logger");
+
+    private static final String DEFAULT_FAMILY = "info";
+
+    /**
+     * 导入结果
+     */
+    public static class Result {
+        private final long rows;
+        private final long failed;
+        private final long nanos;
+
+        Result(long rows, long failed, long nanos) {
+            this.rows = rows;
+            this.failed = failed;
+            this.nanos = nanos;
+        }
+
+        public long getRows() {
+            return rows;
+        }
+
+        public long getFailed() {
+            return failed;
+        }
+
+        public double getSeconds() {
+            return nanos / 1e9;
+        }
+
+        public double getRowsPerSecond() {
+            return rows / Math.max(getSeconds(), 1e-9);
+        }
+    }
+
+    /**
+     * 导入一个 CSV 文件，返回写入行数、失败行数和耗时
+     */
+    public static Result load(HBaseClient client, String tableName, Path csv) throws IOException {
+        return load(client, tableName, csv, null);
+    }
+
+    /**
+     * 导入一个 CSV 文件；salter 不为 null 时对行键加盐
+     */
+    public static Result load(HBaseClient client, String tableName, Path csv, RowKeySalter salter) throws IOException {
+        long start = System.nanoTime();
+        try (BufferedReader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8);
+             HBaseBulkWriter writer = new HBaseBulkWriter(client, tableName)) {
+            String header = reader.readLine();
+            if (header == null) {
+                return new Result(0, 0, System.nanoTime() - start);
+            }
+            String[] columns = header.split(",", -1);
+            byte[][] families = new byte[columns.length][];
+            byte[][] qualifiers = new byte[columns.length][];
+            for (int i = 1; i < columns.length; i++) {
+                String column = columns[i].trim();
+                int colon = column.indexOf(':');
+                families[i] = Bytes.toBytes(colon < 0 ? DEFAULT_FAMILY : column.substring(0, colon));
+                qualifiers[i] = Bytes.toBytes(colon < 0 ? column : column.substring(colon + 1));
+            }
+
+            String line;
+            long lineNo = 1;
+            while ((line = reader.readLine()) != null) {
+                lineNo++;
+                if (line.isEmpty()) {
+                    continue;
+                }
+                String[] values = line.split(",", -1);
+                if (values.length != columns.length) {
+                    MY_LOGGER.warn("{} 第 {} 行有 {} 列，表头为 {} 列，跳过", csv, lineNo, values.length, columns.length);
+                    continue;
+                }
+                byte[] row = Bytes.toBytes(values[0]);
+                Put put = new Put(salter == null ? row : salter.salt(row));
+                for (int i = 1; i < values.length; i++) {
+                    if (!values[i].isEmpty()) {
+                        put.addColumn(families[i], qualifiers[i], Bytes.toBytes(values[i]));
+                    }
+                }
+                if (!put.isEmpty()) {
+                    writer.add(put);
+                }
+            }
+            writer.flush();
+            return new Result(writer.getRows() - writer.getFailed(), writer.getFailed(), System.nanoTime() - start);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length % 2 != 0) {
+            MY_LOGGER.error("用法: HBaseCsvLoader <表名> <CSV 文件> [<表名> <CSV 文件> ...]");
+            return;
+        }
+        // 经由 MyHBase 导入：按表描述符为行键加盐，导入后使行缓存失效并重建二级索引
+        try {
+            for (int i = 0; i < args.length; i += 2) {
+                MyHBase.loadCSV(args[i], args[i + 1]);
+            }
+        } finally {
+            MyHBase.close();
+        }
+    }
+}
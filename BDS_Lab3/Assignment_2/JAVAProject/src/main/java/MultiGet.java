@@ -0,0 +1,176 @@
+/**
+ * 批量按行键读取（multi-get）。
+ *
+ * 逐行调用 table.get(Get) 时，取 500 个学生就要 500 次串行 RPC。
+ * MultiGet 先用 RegionLocator 把行键按所在 Region 分组，每组按 myhbase.multiget.batch 个一批
+ * 调用 Table.get(List<Get>)，各批在线程池（myhbase.multiget.threads）中并行执行。
+ * 返回结果与输入行键一一对应、顺序相同，行不存在时对应 Entry 的 isFound() 为 false；
+ * 输入中重复的行键只读取一次。
+ */
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.client.RegionLocator;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.Table;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.UnaryOperator;
+
+public class MultiGet {
+
+    public static final String BATCH_KEY = "myhbase.multiget.batch";
+    public static final int DEFAULT_BATCH = 100;
+    public static final String THREADS_KEY = "myhbase.multiget.threads";
+    public static final int DEFAULT_THREADS = 8;
+
+    /**
+     * 一个行键的读取结果
+     */
+    public static class Entry {
+        private final String row;
+        private final Result result;
+
+        Entry(String row, Result result) {
+            this.row = row;
+            this.result = result;
+        }
+
+        public String getRow() {
+            return row;
+        }
+
+        /**
+         * 行不存在（或投影的列都不存在）时为 false
+         */
+        public boolean isFound() {
+            return result != null && !result.isEmpty();
+        }
+
+        public Result getResult() {
+            return result;
+        }
+    }
+
+    private final HBaseClient client;
+
+    public MultiGet(HBaseClient client) {
+        this.client = client;
+    }
+
+    /**
+     * 读取 rows 中的每一行
+     * @param columns 投影的列，"列族:列" 或 "列族"，为空时读取整行
+     */
+    public List<Entry> get(String tableName, List<String> rows, String... columns) throws IOException {
+        return get(tableName, rows, null, columns);
+    }
+
+    /**
+     * 读取 rows 中的每一行
+     * @param keyOf 由行键得到表中实际存储的行键（如加盐），为 null 时直接使用行键
+     */
+    public List<Entry> get(String tableName, List<String> rows, UnaryOperator<byte[]> keyOf,
+                           String... columns) throws IOException {
+        // 行键 -> 存储行键，重复的行键只保留一个
+        Map<String, byte[]> keys = new LinkedHashMap<>();
+        for (String row : rows) {
+            keys.computeIfAbsent(row, r -> keyOf == null ? Bytes.toBytes(r) : keyOf.apply(Bytes.toBytes(r)));
+        }
+        Map<byte[], Result> results = fetch(tableName, new ArrayList<>(keys.values()), columns);
+
+        List<Entry> entries = new ArrayList<>(rows.size());
+        for (String row : rows) {
+            entries.add(new Entry(row, results.get(keys.get(row))));
+        }
+        return entries;
+    }
+
+    private Map<byte[], Result> fetch(String tableName, List<byte[]> keys, String[] columns) throws IOException {
+        Configuration conf = client.getConfiguration();
+        int batch = Math.max(1, conf.getInt(BATCH_KEY, DEFAULT_BATCH));
+
+        // 按 Region 分组，再切成每批 batch 个
+        Map<String, List<byte[]>> byRegion = new LinkedHashMap<>();
+        try (RegionLocator locator = client.getConnection().getRegionLocator(TableName.valueOf(tableName))) {
+            for (byte[] key : keys) {
+                byRegion.computeIfAbsent(locator.getRegionLocation(key).getRegion().getEncodedName(),
+                        r -> new ArrayList<>()).add(key);
+            }
+        }
+        List<List<byte[]>> batches = new ArrayList<>();
+        for (List<byte[]> regionKeys : byRegion.values()) {
+            for (int i = 0; i < regionKeys.size(); i += batch) {
+                batches.add(regionKeys.subList(i, Math.min(regionKeys.size(), i + batch)));
+            }
+        }
+
+        Map<byte[], Result> results = new TreeMap<>(Bytes.BYTES_COMPARATOR);
+        if (batches.size() <= 1) {
+            for (List<byte[]> part : batches) {
+                getBatch(tableName, part, columns, results);
+            }
+            return results;
+        }
+        int threads = Math.min(batches.size(), conf.getInt(THREADS_KEY, DEFAULT_THREADS));
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Map<byte[], Result>>> futures = new ArrayList<>();
+            for (List<byte[]> part : batches) {
+                futures.add(pool.submit(() -> getBatch(tableName, part, columns, new TreeMap<>(Bytes.BYTES_COMPARATOR))));
+            }
+            for (Future<Map<byte[], Result>> future : futures) {
+                results.putAll(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("批量读取被中断");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("批量读取出错", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private Map<byte[], Result> getBatch(String tableName, List<byte[]> keys, String[] columns,
+                                         Map<byte[], Result> results) throws IOException {
+        List<Get> gets = new ArrayList<>(keys.size());
+        for (byte[] key : keys) {
+            Get get = new Get(key);
+            for (String column : columns) {
+                int colon = column.indexOf(':');
+                if (colon < 0) {
+                    get.addFamily(Bytes.toBytes(column));
+                } else {
+                    get.addColumn(Bytes.toBytes(column.substring(0, colon)), Bytes.toBytes(column.substring(colon + 1)));
+                }
+            }
+            gets.add(get);
+        }
+        // Table.get(List<Get>) 返回的结果与 gets 顺序一致
+        Result[] fetched;
+        try (Table table = client.table(tableName)) {
+            fetched = table.get(gets);
+        }
+        for (int i = 0; i < keys.size(); i++) {
+            results.put(keys.get(i), fetched[i]);
+        }
+        return results;
+    }
+}
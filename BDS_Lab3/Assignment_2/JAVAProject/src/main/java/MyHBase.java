@@ -6,19 +6,56 @@ import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.core.config.Configurator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Scanner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
 
 public class MyHBase {
     // 自定义业务日志，名称为 "my.own.logger"
     private static final Logger MY_LOGGER = LoggerFactory.getLogger("my.own.logger");
-    // HBase API 相关的静态成员
+    // main 演示导出时在日志中显示的行数
+    private static final int EXPORT_SAMPLE_LINES = 5;
+    // HBase API 相关的静态成员：整个进程共用一个连接，由 HBaseClient 管理
     public static Configuration configuration;
     public static Connection connection;
+    /**
+     * @deprecated 保留给直接使用该字段的旧代码，由共享连接创建，close() 时关闭；新代码请在需要时通过
+     *             HBaseClient.admin() 获取并用完关闭
+     */
+    @Deprecated
     public static Admin admin;
+    private static HBaseClient client;
+    // 异步读写，首次调用 *Async 方法时创建
+    private static HBaseAsyncOps async;
+    // 行缓存，myhbase.cache.enabled 为 true 或调用 enableCache 后启用，否则为 null
+    private static volatile RowCache cache;
+
+    // 加盐表在表描述符中记录桶数的属性名
+    public static final String SALT_BUCKETS_ATTRIBUTE = "MYHBASE_SALT_BUCKETS";
+    // 各表的加盐器缓存（未加盐的表缓存为 Optional.empty()）
+    private static final Map<String, Optional<RowKeySalter>> SALTERS = new ConcurrentHashMap<>();
+    // 各表上的二级索引缓存（没有索引的表缓存为空列表）
+    private static final Map<String, List<SecondaryIndex>> INDEXES = new ConcurrentHashMap<>();
 
     // 初始化 HBase 连接，并设置相关包的日志级别
-    public static void init() {
+    // 连接只在第一次调用时建立，之后重复调用直接返回
+    public static synchronized void init() {
+        if (client != null) {
+            return;
+        }
         // 通过代码动态设置日志级别，减少不必要的输出
         Configurator.setAllLevels("org.apache.hadoop", Level.ERROR);
         Configurator.setAllLevels("org.apache.zookeeper", Level.ERROR);
@@ -26,28 +63,84 @@ public class MyHBase {
         Configurator.setAllLevels("my.own.logger", Level.INFO);
         Configurator.setRootLevel(Level.ERROR);
 
-        configuration = HBaseConfiguration.create();
-        configuration.set("hbase.rootdir", "hdfs://localhost:9000/hbase");
         try {
-            connection = ConnectionFactory.createConnection(configuration);
+            client = HBaseClient.shared();
+            configuration = client.getConfiguration();
+            connection = client.getConnection();
             admin = connection.getAdmin();
+            if (configuration.getBoolean(RowCache.ENABLED_KEY, false)) {
+                enableCache(configuration.getLong(RowCache.MAX_BYTES_KEY, RowCache.DEFAULT_MAX_BYTES),
+                        configuration.getLong(RowCache.TTL_KEY, RowCache.DEFAULT_TTL_MS));
+            }
         } catch (IOException e) {
             MY_LOGGER.error("初始化连接失败！", e);
         }
     }
 
-    // 关闭 HBase 连接，释放资源
-    public static void close() {
-        try {
-            if (admin != null) {
+    // 获取共享客户端，必要时先初始化
+    private static HBaseClient client() throws IOException {
+        init();
+        if (client == null) {
+            throw new IOException("HBase 连接未建立");
+        }
+        return client;
+    }
+
+    // 获取异步读写对象，未完成请求数上限见 HBaseAsyncOps
+    private static synchronized HBaseAsyncOps async() throws IOException {
+        if (async == null) {
+            async = new HBaseAsyncOps(client());
+        }
+        return async;
+    }
+
+    /* enableCache(long maxBytes, long ttlMs)
+       启用行缓存：getRecord / getRecords / getRecordAsync 先查缓存，
+       本进程中 addRecord / modifyData / deleteRow 等写入结束后（包括失败的写入）使对应行失效，见 RowCache。
+    */
+    public static void enableCache(long maxBytes, long ttlMs) {
+        cache = new RowCache(maxBytes, ttlMs);
+        MY_LOGGER.info("行缓存已启用，容量 {} 字节，过期时间 {} 毫秒", maxBytes, ttlMs);
+    }
+
+    public static void disableCache() {
+        cache = null;
+    }
+
+    // 当前的行缓存，可读取命中率等统计；未启用时为 null
+    public static RowCache getCache() {
+        return cache;
+    }
+
+    private static void invalidate(String tableName, String row) {
+        RowCache c = cache;
+        if (c != null) {
+            c.invalidate(tableName, row);
+        }
+    }
+
+    private static void invalidateTable(String tableName) {
+        RowCache c = cache;
+        if (c != null) {
+            c.invalidateTable(tableName);
+        }
+    }
+
+    // 关闭共享的 HBase 连接，释放资源（程序结束时调用一次即可）
+    public static synchronized void close() {
+        if (admin != null) {
+            try {
                 admin.close();
+            } catch (IOException e) {
+                MY_LOGGER.error("关闭 Admin 失败！", e);
             }
-            if (connection != null) {
-                connection.close();
-            }
-        } catch (IOException e) {
-            MY_LOGGER.error("关闭连接失败！", e);
+            admin = null;
         }
+        HBaseClient.closeShared();
+        client = null;
+        async = null;
+        configuration = null;
+        connection = null;
     }
 
     /* createTable(String tableName, String[] fields)
@@ -55,21 +148,373 @@ public class MyHBase {
        当 HBase 中已存在名为 tableName 的表时，先删除原有表，再创建新的表。
     */
     public static void createTable(String tableName, String[] fields) throws IOException {
-        init();
+        createTable(tableName, fields, SplitStrategy.none());
+    }
+
+    /* createTable(String tableName, String[] fields, SplitStrategy split)
+       按预分区策略 split 创建表，策略见 SplitStrategy。
+    */
+    public static void createTable(String tableName, String[] fields, SplitStrategy split) throws IOException {
+        createTable(tableName, fields, split, FamilyProfile.DEFAULT, 0);
+    }
+
+    /* createTable(String tableName, String[] fields, FamilyProfile profile)
+       创建表，所有列族按调优配置 profile 设置压缩、编码、布隆过滤器、块大小等参数，配置见 FamilyProfile。
+    */
+    public static void createTable(String tableName, String[] fields, FamilyProfile profile) throws IOException {
+        createTable(tableName, fields, SplitStrategy.none(), profile, 0);
+    }
+
+    public static void createTable(String tableName, String[] fields, SplitStrategy split, FamilyProfile profile) throws IOException {
+        createTable(tableName, fields, split, profile, 0);
+    }
+
+    /* createSaltedTable(String tableName, String[] fields, int buckets)
+       创建行键加盐的表：每个盐值桶一个 Region，桶数记录在表描述符中，
+       之后 addRecord / modifyData / deleteRow / getRecord 等方法会自动对行键加盐。
+    */
+    public static void createSaltedTable(String tableName, String[] fields, int buckets) throws IOException {
+        createTable(tableName, fields, SplitStrategy.salted(new RowKeySalter(buckets)), FamilyProfile.DEFAULT, buckets);
+    }
+
+    private static void createTable(String tableName, String[] fields, SplitStrategy split,
+                                    FamilyProfile profile, int saltBuckets) throws IOException {
         TableName tName = TableName.valueOf(tableName);
-        if (admin.tableExists(tName)) {
-            MY_LOGGER.info("表 {} 已存在，先删除再创建", tableName);
-            admin.disableTable(tName);
-            admin.deleteTable(tName);
-        }
-        HTableDescriptor descriptor = new HTableDescriptor(tName);
-        for (String field : fields) {
-            HColumnDescriptor colDescriptor = new HColumnDescriptor(field);
-            descriptor.addFamily(colDescriptor);
-        }
-        admin.createTable(descriptor);
-        MY_LOGGER.info("表 {} 已创建", tableName);
-        close();
+        try (Admin admin = client().admin()) {
+            if (admin.tableExists(tName)) {
+                MY_LOGGER.info("表 {} 已存在，先删除再创建", tableName);
+                dropIndexTables(admin, tName);
+                admin.disableTable(tName);
+                admin.deleteTable(tName);
+            }
+            HTableDescriptor descriptor = new HTableDescriptor(tName);
+            for (String field : fields) {
+                descriptor.addFamily(profile.newFamily(field));
+            }
+            if (saltBuckets > 0) {
+                descriptor.setValue(SALT_BUCKETS_ATTRIBUTE, String.valueOf(saltBuckets));
+            }
+            if (split.getSplitKeys().length == 0) {
+                admin.createTable(descriptor);
+            } else {
+                admin.createTable(descriptor, split.getSplitKeys());
+            }
+        } finally {
+            SALTERS.remove(tableName);
+            INDEXES.remove(tableName);
+            invalidateTable(tableName);
+        }
+        MY_LOGGER.info("表 {} 已创建，预分区策略 {}，共 {} 个 Region，列族配置 {}", tableName, split, split.getRegions(), profile);
+    }
+
+    // 读取表描述符中的盐值桶数，未加盐的表返回 null；结果按表缓存
+    static RowKeySalter salterFor(String tableName) throws IOException {
+        Optional<RowKeySalter> salter = SALTERS.get(tableName);
+        if (salter == null) {
+            String buckets;
+            try (Admin admin = client().admin()) {
+                buckets = admin.getDescriptor(TableName.valueOf(tableName)).getValue(SALT_BUCKETS_ATTRIBUTE);
+            }
+            salter = buckets == null ? Optional.empty() : Optional.of(new RowKeySalter(Integer.parseInt(buckets)));
+            SALTERS.put(tableName, salter);
+        }
+        return salter.orElse(null);
+    }
+
+    // 读取表描述符中记录的二级索引；结果按表缓存
+    static List<SecondaryIndex> indexesFor(String tableName) throws IOException {
+        List<SecondaryIndex> indexes = INDEXES.get(tableName);
+        if (indexes == null) {
+            String columns;
+            try (Admin admin = client().admin()) {
+                columns = admin.getDescriptor(TableName.valueOf(tableName)).getValue(SecondaryIndex.INDEXES_ATTRIBUTE);
+            }
+            indexes = parseIndexes(tableName, columns);
+            INDEXES.put(tableName, indexes);
+        }
+        return indexes;
+    }
+
+    private static List<SecondaryIndex> parseIndexes(String tableName, String columns) {
+        List<SecondaryIndex> indexes = new ArrayList<>();
+        if (columns != null && !columns.isEmpty()) {
+            for (String column : columns.split(",")) {
+                indexes.add(new SecondaryIndex(tableName, column));
+            }
+        }
+        return indexes;
+    }
+
+    // 删除表上全部索引对应的索引表（原表被删除或重建时调用）
+    private static void dropIndexTables(Admin admin, TableName tName) throws IOException {
+        String columns = admin.getDescriptor(tName).getValue(SecondaryIndex.INDEXES_ATTRIBUTE);
+        for (SecondaryIndex index : parseIndexes(tName.getNameAsString(), columns)) {
+            TableName indexTable = TableName.valueOf(index.getIndexTableName());
+            if (admin.tableExists(indexTable)) {
+                admin.disableTable(indexTable);
+                admin.deleteTable(indexTable);
+            }
+        }
+    }
+
+    /* createIndex(String tableName, String column)
+       为表 tableName 的字段 column 建立二级索引并从原表现有数据构建，字段格式见 SecondaryIndex。
+       之后 addRecord / addRecords / modifyData / deleteRow（及其异步版本）会自动维护该索引。
+    */
+    public static void createIndex(String tableName, String column) throws IOException {
+        SecondaryIndex index = new SecondaryIndex(tableName, column);
+        TableName tName = TableName.valueOf(tableName);
+        try (Admin admin = client().admin()) {
+            TableDescriptor descriptor = admin.getDescriptor(tName);
+            List<String> columns = new ArrayList<>();
+            for (SecondaryIndex existing : parseIndexes(tableName, descriptor.getValue(SecondaryIndex.INDEXES_ATTRIBUTE))) {
+                columns.add(existing.getColumn());
+            }
+            if (!columns.contains(column)) {
+                columns.add(column);
+                admin.modifyTable(TableDescriptorBuilder.newBuilder(descriptor)
+                        .setValue(SecondaryIndex.INDEXES_ATTRIBUTE, String.join(",", columns)).build());
+            }
+            index.createIndexTable(admin);
+        } finally {
+            INDEXES.remove(tableName);
+        }
+        rebuildIndex(tableName, column);
+    }
+
+    /* dropIndex(String tableName, String column)
+       删除表 tableName 上字段 column 的二级索引及其索引表。
+    */
+    public static void dropIndex(String tableName, String column) throws IOException {
+        SecondaryIndex index = new SecondaryIndex(tableName, column);
+        TableName tName = TableName.valueOf(tableName);
+        try (Admin admin = client().admin()) {
+            TableDescriptor descriptor = admin.getDescriptor(tName);
+            List<String> columns = new ArrayList<>();
+            for (SecondaryIndex existing : parseIndexes(tableName, descriptor.getValue(SecondaryIndex.INDEXES_ATTRIBUTE))) {
+                if (!existing.getColumn().equals(column)) {
+                    columns.add(existing.getColumn());
+                }
+            }
+            TableDescriptorBuilder builder = TableDescriptorBuilder.newBuilder(descriptor);
+            if (columns.isEmpty()) {
+                builder.removeValue(Bytes.toBytes(SecondaryIndex.INDEXES_ATTRIBUTE));
+            } else {
+                builder.setValue(SecondaryIndex.INDEXES_ATTRIBUTE, String.join(",", columns));
+            }
+            admin.modifyTable(builder.build());
+            TableName indexTable = TableName.valueOf(index.getIndexTableName());
+            if (admin.tableExists(indexTable)) {
+                admin.disableTable(indexTable);
+                admin.deleteTable(indexTable);
+            }
+        } finally {
+            INDEXES.remove(tableName);
+        }
+        MY_LOGGER.info("索引 {} 已删除", index);
+    }
+
+    /* rebuildIndex(String tableName, String column)
+       清空索引表后扫描原表重建索引，用于修复中途失败留下的不一致，或在 loadCSV 等批量导入之后使用。
+    */
+    public static void rebuildIndex(String tableName, String column) throws IOException {
+        SecondaryIndex index = new SecondaryIndex(tableName, column);
+        TableName indexTable = TableName.valueOf(index.getIndexTableName());
+        try (Admin admin = client().admin()) {
+            if (admin.isTableEnabled(indexTable)) {
+                admin.disableTable(indexTable);
+            }
+            admin.truncateTable(indexTable, true);
+        }
+        RowKeySalter salter = salterFor(tableName);
+        ScanQuery query = index.isColumnIndex() ? ScanQuery.create().column(column) : ScanQuery.create();
+        long rows;
+        try (HBaseBulkWriter writer = new HBaseBulkWriter(client(), index.getIndexTableName())) {
+            rows = scan(tableName, query, result -> {
+                String row = Bytes.toString(salter == null ? result.getRow() : salter.unsalt(result.getRow()));
+                byte[] value = index.valueOf(row, result);
+                if (value != null) {
+                    writer.add(index.indexPut(value, row));
+                }
+            });
+            writer.flush();
+        }
+        MY_LOGGER.info("索引 {} 已重建，扫描原表 {} 行", index, rows);
+    }
+
+    /* findByIndex(String tableName, String column, String value)
+       通过二级索引查找表 tableName 中字段 column 等于 value 的行并输出：
+       先前缀扫描索引表得到行键，再批量读取原表；原表当前值已不匹配的过期索引项会被跳过
+       （不在查询时删除，以免删掉并发写入刚写下的新索引项），需要清理时调用 rebuildIndex。
+    */
+    public static List<MultiGet.Entry> findByIndex(String tableName, String column, String value) throws IOException {
+        SecondaryIndex index = null;
+        for (SecondaryIndex existing : indexesFor(tableName)) {
+            if (existing.getColumn().equals(column)) {
+                index = existing;
+            }
+        }
+        if (index == null) {
+            throw new IllegalArgumentException("表 " + tableName + " 上没有字段 " + column + " 的索引");
+        }
+        byte[] expected = Bytes.toBytes(value);
+        byte[] prefix = index.prefix(expected);
+        List<String> rows = new ArrayList<>();
+        try (Table table = client().table(index.getIndexTableName());
+             ResultScanner scanner = table.getScanner(new Scan().setRowPrefixFilter(prefix))) {
+            for (Result result = scanner.next(); result != null; result = scanner.next()) {
+                rows.add(SecondaryIndex.rowOf(result.getRow()));
+            }
+        }
+
+        RowKeySalter salter = salterFor(tableName);
+        List<MultiGet.Entry> matched = new ArrayList<>();
+        for (MultiGet.Entry entry : new MultiGet(client()).get(tableName, rows, salter == null ? null : salter::salt)) {
+            if (Bytes.equals(index.valueOf(entry.getRow(), entry.getResult()), expected)) {
+                matched.add(entry);
+                showCell(entry.getResult(), salter);
+            }
+        }
+        MY_LOGGER.info("通过索引 {} 查找 {} = {}：{} 行，跳过过期索引项 {} 个", index.getIndexTableName(),
+                column, value, matched.size(), rows.size() - matched.size());
+        return matched;
+    }
+
+    // 写入原表之前：读取各行的旧值，写入新的索引项；返回写入原表之后需要删除的旧索引项（按索引表分组）
+    private static Map<String, List<Delete>> indexBeforePut(String tableName, List<String> rows, List<Put> puts)
+            throws IOException {
+        List<SecondaryIndex> indexes = indexesFor(tableName);
+        Map<String, List<Delete>> deletes = new HashMap<>();
+        if (indexes.isEmpty()) {
+            return deletes;
+        }
+        List<MultiGet.Entry> current = currentRows(tableName, rows, indexes);
+        for (SecondaryIndex index : indexes) {
+            List<Put> indexPuts = new ArrayList<>();
+            List<Delete> indexDeletes = new ArrayList<>();
+            for (int i = 0; i < rows.size(); i++) {
+                indexChanges(index, rows.get(i), current.get(i).getResult(), puts.get(i), indexPuts, indexDeletes);
+            }
+            if (!indexPuts.isEmpty()) {
+                try (Table table = client().table(index.getIndexTableName())) {
+                    table.put(indexPuts);
+                }
+            }
+            deletes.put(index.getIndexTableName(), indexDeletes);
+        }
+        return deletes;
+    }
+
+    // 行 row 由 current 变为写入 put 之后的索引变更：新索引项加入 indexPuts，旧索引项加入 indexDeletes
+    private static void indexChanges(SecondaryIndex index, String row, Result current, Put put,
+                                     List<Put> indexPuts, List<Delete> indexDeletes) {
+        byte[] oldValue = index.valueOf(row, current);
+        byte[] newValue = index.valueAfter(row, oldValue, put);
+        if (newValue != null && !Bytes.equals(oldValue, newValue)) {
+            indexPuts.add(index.indexPut(newValue, row));
+        }
+        if (oldValue != null && !Bytes.equals(oldValue, newValue)) {
+            indexDeletes.add(index.indexDelete(oldValue, row));
+        }
+    }
+
+    // 删除原表中的行之前：读取各行的旧值，返回删除原表之后需要删除的索引项（按索引表分组）
+    private static Map<String, List<Delete>> indexBeforeDelete(String tableName, List<String> rows) throws IOException {
+        List<SecondaryIndex> indexes = indexesFor(tableName);
+        Map<String, List<Delete>> deletes = new HashMap<>();
+        if (indexes.isEmpty()) {
+            return deletes;
+        }
+        List<MultiGet.Entry> current = currentRows(tableName, rows, indexes);
+        for (SecondaryIndex index : indexes) {
+            List<Delete> indexDeletes = new ArrayList<>();
+            for (int i = 0; i < rows.size(); i++) {
+                byte[] oldValue = index.valueOf(rows.get(i), current.get(i).getResult());
+                if (oldValue != null) {
+                    indexDeletes.add(index.indexDelete(oldValue, rows.get(i)));
+                }
+            }
+            deletes.put(index.getIndexTableName(), indexDeletes);
+        }
+        return deletes;
+    }
+
+    // 读取各行被索引的字段；有行键分段索引时需要知道行是否存在，读取整行
+    private static List<MultiGet.Entry> currentRows(String tableName, List<String> rows,
+                                                    List<SecondaryIndex> indexes) throws IOException {
+        List<String> columns = new ArrayList<>();
+        for (SecondaryIndex index : indexes) {
+            if (!index.isColumnIndex()) {
+                columns.clear();
+                break;
+            }
+            columns.add(index.getColumn());
+        }
+        RowKeySalter salter = salterFor(tableName);
+        return new MultiGet(client()).get(tableName, rows, salter == null ? null : salter::salt,
+                columns.toArray(new String[0]));
+    }
+
+    // 与 currentRows 相同，读取一行被索引的字段的 Get
+    private static Get indexedGet(byte[] rowKey, List<SecondaryIndex> indexes) {
+        Get get = new Get(rowKey);
+        for (SecondaryIndex index : indexes) {
+            if (!index.isColumnIndex()) {
+                return new Get(rowKey);
+            }
+            get.addColumn(index.getFamily(), index.getQualifier());
+        }
+        return get;
+    }
+
+    // 经 AsyncTable 向各索引表提交写入或删除，全部完成时 future 完成
+    private static <T> CompletableFuture<Void> forEachIndex(HBaseAsyncOps ops, Map<String, List<T>> mutations,
+            BiFunction<AsyncTable<?>, List<T>, CompletableFuture<Void>> request) {
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (Map.Entry<String, List<T>> entry : mutations.entrySet()) {
+            if (!entry.getValue().isEmpty()) {
+                futures.add(request.apply(ops.table(entry.getKey()), entry.getValue()));
+            }
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]));
+    }
+
+    // 异步删除旧索引项；失败时只记录日志，过期索引项在查询时会被跳过，由 rebuildIndex 清理
+    private static CompletableFuture<Void> applyIndexDeletesAsync(HBaseAsyncOps ops, String tableName, String row,
+                                                                  Map<String, List<Delete>> deletes) {
+        return forEachIndex(ops, deletes, AsyncTable::deleteAll).exceptionally(t -> {
+            MY_LOGGER.warn("删除表 {} 行 {} 的旧索引项失败", tableName, row, t);
+            return null;
+        });
+    }
+
+    private static void applyIndexDeletes(Map<String, List<Delete>> deletes) throws IOException {
+        for (Map.Entry<String, List<Delete>> entry : deletes.entrySet()) {
+            if (!entry.getValue().isEmpty()) {
+                try (Table table = client().table(entry.getKey())) {
+                    table.delete(entry.getValue());
+                }
+            }
+        }
+    }
+
+    // 写入一行并维护索引：先写新索引项，再写原表，最后删除旧索引项
+    private static void putRow(String tableName, String row, Put put) throws IOException {
+        Map<String, List<Delete>> staleIndexes = indexBeforePut(tableName,
+                Collections.singletonList(row), Collections.singletonList(put));
+        try (Table table = client().table(tableName)) {
+            table.put(put);
+        } finally {
+            // 写入失败时也可能已经生效，同样使缓存失效
+            invalidate(tableName, row);
+        }
+        applyIndexDeletes(staleIndexes);
+    }
+
+    // 表中实际存储的行键（加盐表加上桶前缀）
+    static byte[] rowKey(String tableName, String row) throws IOException {
+        RowKeySalter salter = salterFor(tableName);
+        return salter == null ? Bytes.toBytes(row) : salter.salt(row);
     }
 
     /* addRecord(String tableName, String row, String[] fields, String[] values)
@@ -77,17 +522,107 @@ public class MyHBase {
        fields 数组中每个元素格式为 "列族:列"，values 数组存储对应的值。
     */
     public static void addRecord(String tableName, String row, String[] fields, String[] values) throws IOException {
-        init();
-        Table table = connection.getTable(TableName.valueOf(tableName));
+        // 同一行的所有列合并成一个 Put，只需一次 RPC
+        putRow(tableName, row, HBaseBulkWriter.toPut(rowKey(tableName, row), fields, values));
         for (int i = 0; i < fields.length; i++) {
-            Put put = new Put(Bytes.toBytes(row));
-            String[] parts = fields[i].split(":");
-            put.addColumn(Bytes.toBytes(parts[0]), Bytes.toBytes(parts[1]), Bytes.toBytes(values[i]));
-            table.put(put);
-            MY_LOGGER.info("向表 {} 的行 {} 插入数据 {}:{} = {}", tableName, row, parts[0], parts[1], values[i]);
+            MY_LOGGER.info("向表 {} 的行 {} 插入数据 {} = {}", tableName, row, fields[i], values[i]);
+        }
+    }
+
+    /* addRecordAsync(String tableName, String row, String[] fields, String[] values)
+       addRecord 的异步版本：立即返回，写入完成时 future 完成；
+       未完成的请求数达到 myhbase.async.max.inflight 时阻塞，直到有请求完成。
+    */
+    public static CompletableFuture<Void> addRecordAsync(String tableName, String row, String[] fields,
+                                                         String[] values) throws IOException {
+        return putRowAsync(tableName, row, HBaseBulkWriter.toPut(rowKey(tableName, row), fields, values));
+    }
+
+    // putRow 的异步版本：有索引时读旧值、写新索引项、写原表、删旧索引项经 AsyncTable 依次串联，
+    // 整条链只占一个许可，调用线程和回调线程都不会阻塞
+    private static CompletableFuture<Void> putRowAsync(String tableName, String row, Put put) throws IOException {
+        List<SecondaryIndex> indexes = indexesFor(tableName);
+        if (indexes.isEmpty()) {
+            return async().put(tableName, put).whenComplete((v, t) -> invalidate(tableName, row));
+        }
+        HBaseAsyncOps ops = async();
+        return ops.submit(() -> ops.table(tableName).get(indexedGet(put.getRow(), indexes)).thenCompose(current -> {
+            Map<String, List<Put>> indexPuts = new HashMap<>();
+            Map<String, List<Delete>> staleIndexes = new HashMap<>();
+            for (SecondaryIndex index : indexes) {
+                List<Put> puts = new ArrayList<>();
+                List<Delete> deletes = new ArrayList<>();
+                indexChanges(index, row, current, put, puts, deletes);
+                indexPuts.put(index.getIndexTableName(), puts);
+                staleIndexes.put(index.getIndexTableName(), deletes);
+            }
+            return forEachIndex(ops, indexPuts, AsyncTable::putAll)
+                    .thenCompose(v -> ops.table(tableName).put(put))
+                    .whenComplete((v, t) -> invalidate(tableName, row))
+                    .thenCompose(v -> applyIndexDeletesAsync(ops, tableName, row, staleIndexes));
+        }));
+    }
+
+    /* addRecords(String tableName, List<String> rows, String[] fields, List<String[]> valuesList)
+       批量添加记录：fields 对所有行相同，valuesList 中第 i 个数组为 rows 中第 i 行的值。
+       通过 BufferedMutator 写入，适合一次导入大量行。
+    */
+    public static void addRecords(String tableName, List<String> rows, String[] fields, List<String[]> valuesList) throws IOException {
+        RowKeySalter salter = salterFor(tableName);
+        List<Put> puts = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            byte[] row = Bytes.toBytes(rows.get(i));
+            puts.add(HBaseBulkWriter.toPut(salter == null ? row : salter.salt(row), fields, valuesList.get(i)));
+        }
+        Map<String, List<Delete>> staleIndexes = indexBeforePut(tableName, rows, puts);
+        try (HBaseBulkWriter writer = new HBaseBulkWriter(client(), tableName)) {
+            for (Put put : puts) {
+                writer.add(put);
+            }
+            writer.flush();
+            MY_LOGGER.info("向表 {} 批量插入 {} 行，失败 {} 行", tableName, writer.getRows(), writer.getFailed());
+        } finally {
+            for (String row : rows) {
+                invalidate(tableName, row);
+            }
+        }
+        applyIndexDeletes(staleIndexes);
+    }
+
+    /* loadCSV(String tableName, String csvPath)
+       从 CSV 文件批量导入数据，格式见 HBaseCsvLoader。
+    */
+    public static void loadCSV(String tableName, String csvPath) throws IOException {
+        HBaseCsvLoader.Result result;
+        try {
+            result = HBaseCsvLoader.load(client(), tableName, Paths.get(csvPath), salterFor(tableName));
+        } finally {
+            invalidateTable(tableName);
+        }
+        MY_LOGGER.info("从 {} 向表 {} 导入 {} 行，失败 {} 行，{} 行/秒", csvPath, tableName,
+                result.getRows(), result.getFailed(), (long) result.getRowsPerSecond());
+        // 批量导入不逐行维护索引，导入后整体重建
+        for (SecondaryIndex index : indexesFor(tableName)) {
+            rebuildIndex(tableName, index.getColumn());
+        }
+    }
+
+    /* bulkLoad(String tableName, String path)
+       通过生成 HFile 从 CSV / TSV 文件批量导入数据，不经过 WAL 和 MemStore，适合初次大批量导入，见 HBaseBulkLoader。
+    */
+    public static void bulkLoad(String tableName, String path) throws IOException {
+        HBaseBulkLoader.Result result;
+        try {
+            result = HBaseBulkLoader.load(client(), tableName, Paths.get(path), salterFor(tableName));
+        } finally {
+            invalidateTable(tableName);
+        }
+        MY_LOGGER.info("从 {} 向表 {} 批量导入 {} 行，跳过 {} 行，生成 HFile {} 秒，导入 {} 秒", path, tableName,
+                result.getRows(), result.getSkipped(), String.format("%.2f", result.getGenerateSeconds()),
+                String.format("%.2f", result.getLoadSeconds()));
+        for (SecondaryIndex index : indexesFor(tableName)) {
+            rebuildIndex(tableName, index.getColumn());
         }
-        table.close();
-        close();
     }
 
     /* scanColumn(String tableName, String column)
@@ -95,32 +630,177 @@ public class MyHBase {
        当 column 中包含冒号，则视为 "列族:列"；否则视为整个列族。
     */
     public static void scanColumn(String tableName, String column) throws IOException {
-        init();
-        Table table = connection.getTable(TableName.valueOf(tableName));
-        Scan scan = new Scan();
-        if (column.contains(":")) {
-            String[] parts = column.split(":");
-            scan.addColumn(Bytes.toBytes(parts[0]), Bytes.toBytes(parts[1]));
+        query(tableName, ScanQuery.create().column(column));
+    }
+
+    /* query(String tableName, ScanQuery query)
+       按查询条件扫描表 tableName 并输出结果，返回输出的行数。
+       行键范围、列投影、值过滤和 limit 都由 RegionServer 在服务端执行，见 ScanQuery。
+       加盐表按桶逐个扫描，结果在桶内按原始行键有序，桶之间无序。
+    */
+    public static long query(String tableName, ScanQuery query) throws IOException {
+        RowKeySalter salter = salterFor(tableName);
+        return scan(tableName, query, result -> showCell(result, salter));
+    }
+
+    /* exportData(String tableName, ScanQuery query, OutputStream out, CellWriter.Format format)
+       按查询条件扫描表 tableName，把结果以 TSV 或 JSON Lines 格式写到 out（不关闭 out），返回写出的单元格数。
+       直接从单元格底层数组写出，不为每个单元格复制数据；加盐表输出去掉桶前缀的原始行键。
+    */
+    public static long exportData(String tableName, ScanQuery query, OutputStream out,
+                                  CellWriter.Format format) throws IOException {
+        RowKeySalter salter = salterFor(tableName);
+        CellWriter writer = new CellWriter(out, format, salter == null ? 0 : RowKeySalter.PREFIX_LENGTH);
+        scan(tableName, query, writer::write);
+        writer.flush();
+        return writer.getCells();
+    }
+
+    // 处理扫描结果的回调
+    private interface ResultHandler {
+        void handle(Result result) throws IOException;
+    }
+
+    // 按查询条件扫描表并逐个处理结果，返回行数；加盐表逐个桶扫描，limit 对所有桶合计生效
+    private static long scan(String tableName, ScanQuery query, ResultHandler handler) throws IOException {
+        Scan scan = query.toScan();
+        RowKeySalter salter = salterFor(tableName);
+        List<Scan> scans = salter == null ? Collections.singletonList(scan)
+                : salter.scansFor(scan, query.getStartRow(), query.getStopRow());
+        long rows = 0;
+        try (Table table = client().table(tableName)) {
+            for (Scan s : scans) {
+                try (ResultScanner scanner = table.getScanner(s)) {
+                    byte[] lastRow = null;
+                    for (Result result = scanner.next(); result != null; result = scanner.next()) {
+                        // 设置了 batch 时同一行可能拆成多个 Result
+                        if (lastRow == null || !Bytes.equals(lastRow, result.getRow())) {
+                            if (query.getLimit() > 0 && rows == query.getLimit()) {
+                                break;
+                            }
+                            rows++;
+                            lastRow = result.getRow();
+                        }
+                        handler.handle(result);
+                    }
+                }
+                if (query.getLimit() > 0 && rows >= query.getLimit()) {
+                    break;
+                }
+            }
+        }
+        return rows;
+    }
+
+    /* queryParallel(String tableName, ScanQuery query, boolean ordered)
+       与 query 相同，但按 Region 并行扫描，见 ParallelScanner。
+       ordered 为 true 时按原始行键顺序输出（加盐表对各桶做多路归并），否则按到达顺序输出。
+    */
+    public static long queryParallel(String tableName, ScanQuery query, boolean ordered) throws IOException {
+        Scan scan = query.toScan();
+        RowKeySalter salter = salterFor(tableName);
+        List<Scan> scans = salter == null ? Collections.singletonList(scan)
+                : salter.scansFor(scan, query.getStartRow(), query.getStopRow());
+        try (ParallelScanner scanner = new ParallelScanner(client(), tableName, scans, ordered,
+                salter == null ? null : salter::unsalt)) {
+            for (Result result = scanner.next(); result != null; result = scanner.next()) {
+                showCell(result, salter);
+            }
+            // 设置了 batch 时同一行可能拆成多个 Result，由扫描器按行计数
+            return scanner.getRows();
+        }
+    }
+
+    /* getRecord(String tableName, String row)
+       读取表 tableName 中行 row 的全部数据并输出，返回该行是否存在。
+    */
+    public static boolean getRecord(String tableName, String row) throws IOException {
+        Result result;
+        RowCache c = cache;
+        if (c != null) {
+            result = c.getAll(tableName, Collections.singletonList(row), missing -> loadRows(tableName, missing)).get(0);
         } else {
-            scan.addFamily(Bytes.toBytes(column));
+            try (Table table = client().table(tableName)) {
+                result = table.get(new Get(rowKey(tableName, row)));
+            }
         }
-        ResultScanner scanner = table.getScanner(scan);
-        for (Result result = scanner.next(); result != null; result = scanner.next()) {
-            showCell(result);
+        if (result.isEmpty()) {
+            MY_LOGGER.info("表 {} 中不存在行 {}", tableName, row);
+            return false;
         }
-        scanner.close();
-        table.close();
-        close();
+        showCell(result, salterFor(tableName));
+        return true;
+    }
+
+    /* getRecords(String tableName, List<String> rows, String... columns)
+       批量读取表 tableName 中的多行并输出，columns 为投影的列（"列族:列" 或 "列族"，为空时读取整行）。
+       按 Region 分组后批量并行读取，见 MultiGet；返回结果与 rows 顺序一致，不存在的行 isFound() 为 false。
+    */
+    public static List<MultiGet.Entry> getRecords(String tableName, List<String> rows, String... columns) throws IOException {
+        RowKeySalter salter = salterFor(tableName);
+        List<MultiGet.Entry> entries;
+        RowCache c = cache;
+        if (c != null) {
+            // 缓存保存整行，投影在客户端完成
+            List<Result> results = c.getAll(tableName, rows, missing -> loadRows(tableName, missing));
+            entries = new ArrayList<>(rows.size());
+            for (int i = 0; i < rows.size(); i++) {
+                entries.add(new MultiGet.Entry(rows.get(i), RowCache.project(results.get(i), columns)));
+            }
+        } else {
+            entries = new MultiGet(client()).get(tableName, rows, salter == null ? null : salter::salt, columns);
+        }
+        int missing = 0;
+        for (MultiGet.Entry entry : entries) {
+            if (entry.isFound()) {
+                showCell(entry.getResult(), salter);
+            } else {
+                missing++;
+                MY_LOGGER.info("表 {} 中不存在行 {}", tableName, entry.getRow());
+            }
+        }
+        MY_LOGGER.info("从表 {} 批量读取 {} 行，其中 {} 行不存在", tableName, entries.size(), missing);
+        return entries;
+    }
+
+    /* getRecordAsync(String tableName, String row)
+       异步读取表 tableName 中行 row 的全部数据，行不存在时返回空的 Result。
+    */
+    public static CompletableFuture<Result> getRecordAsync(String tableName, String row) throws IOException {
+        Get get = new Get(rowKey(tableName, row));
+        HBaseAsyncOps ops = async();
+        RowCache c = cache;
+        if (c != null) {
+            return c.getAsync(tableName, row, () -> ops.get(tableName, get));
+        }
+        return ops.get(tableName, get);
+    }
+
+    // 行缓存未命中时批量读取整行
+    private static List<Result> loadRows(String tableName, List<String> rows) throws IOException {
+        RowKeySalter salter = salterFor(tableName);
+        List<Result> results = new ArrayList<>(rows.size());
+        for (MultiGet.Entry entry : new MultiGet(client()).get(tableName, rows, salter == null ? null : salter::salt)) {
+            results.add(entry.getResult());
+        }
+        return results;
     }
 
     // 格式化输出扫描结果中的每个单元格
     public static void showCell(Result result) {
+        showCell(result, null);
+    }
+
+    // 格式化输出单元格；salter 不为 null 时输出去掉盐值前缀的原始行键
+    // 按偏移量直接从单元格底层数组解码，不再经 CellUtil.clone* 复制出中间数组
+    public static void showCell(Result result, RowKeySalter salter) {
         Cell[] cells = result.rawCells();
         for (Cell cell : cells) {
-            String rowKey = Bytes.toString(CellUtil.cloneRow(cell));
-            String family = Bytes.toString(CellUtil.cloneFamily(cell));
-            String qualifier = Bytes.toString(CellUtil.cloneQualifier(cell));
-            String value = Bytes.toString(CellUtil.cloneValue(cell));
+            int skip = salter == null ? 0 : RowKeySalter.PREFIX_LENGTH;
+            String rowKey = Bytes.toString(cell.getRowArray(), cell.getRowOffset() + skip, cell.getRowLength() - skip);
+            String family = Bytes.toString(cell.getFamilyArray(), cell.getFamilyOffset(), cell.getFamilyLength());
+            String qualifier = Bytes.toString(cell.getQualifierArray(), cell.getQualifierOffset(), cell.getQualifierLength());
+            String value = Bytes.toString(cell.getValueArray(), cell.getValueOffset(), cell.getValueLength());
             long timestamp = cell.getTimestamp();
             MY_LOGGER.info("行键: {}, 列族: {}, 列: {}, 值: {}, 时间戳: {}",
                     rowKey, family, qualifier, value, timestamp);
@@ -131,42 +811,92 @@ public class MyHBase {
        修改表 tableName 中指定行 row 在 "列族:列" 下的单元格数据为 val。
     */
     public static void modifyData(String tableName, String row, String column, String val) throws IOException {
-        init();
-        Table table = connection.getTable(TableName.valueOf(tableName));
-        Put put = new Put(Bytes.toBytes(row));
+        Put put = new Put(rowKey(tableName, row));
         String[] parts = column.split(":");
         put.addColumn(Bytes.toBytes(parts[0]), Bytes.toBytes(parts[1]), Bytes.toBytes(val));
-        table.put(put);
+        putRow(tableName, row, put);
         MY_LOGGER.info("修改表 {} 中行 {} 的 {} 数据为 {}", tableName, row, column, val);
-        table.close();
-        close();
+    }
+
+    /* modifyDataAsync(String tableName, String row, String column, String val)
+       modifyData 的异步版本。
+    */
+    public static CompletableFuture<Void> modifyDataAsync(String tableName, String row, String column,
+                                                          String val) throws IOException {
+        Put put = new Put(rowKey(tableName, row));
+        String[] parts = column.split(":");
+        put.addColumn(Bytes.toBytes(parts[0]), Bytes.toBytes(parts[1]), Bytes.toBytes(val));
+        return putRowAsync(tableName, row, put);
     }
 
     /* deleteRow(String tableName, String row)
        删除表 tableName 中指定行 row 的记录。
     */
     public static void deleteRow(String tableName, String row) throws IOException {
-        init();
-        Table table = connection.getTable(TableName.valueOf(tableName));
-        Delete delete = new Delete(Bytes.toBytes(row));
-        table.delete(delete);
+        // 先删原表再删索引项，中途失败只会留下查询时会被跳过的过期索引项
+        Map<String, List<Delete>> staleIndexes = indexBeforeDelete(tableName, Collections.singletonList(row));
+        try (Table table = client().table(tableName)) {
+            Delete delete = new Delete(rowKey(tableName, row));
+            table.delete(delete);
+        } finally {
+            invalidate(tableName, row);
+        }
+        applyIndexDeletes(staleIndexes);
         MY_LOGGER.info("删除表 {} 中行 {}", tableName, row);
-        table.close();
-        close();
+    }
+
+    /* deleteRowAsync(String tableName, String row)
+       deleteRow 的异步版本；有索引时与 addRecordAsync 一样经 AsyncTable 串联读旧值、删原表、删索引项。
+    */
+    public static CompletableFuture<Void> deleteRowAsync(String tableName, String row) throws IOException {
+        List<SecondaryIndex> indexes = indexesFor(tableName);
+        byte[] key = rowKey(tableName, row);
+        if (indexes.isEmpty()) {
+            return async().delete(tableName, new Delete(key)).whenComplete((v, t) -> invalidate(tableName, row));
+        }
+        HBaseAsyncOps ops = async();
+        return ops.submit(() -> ops.table(tableName).get(indexedGet(key, indexes)).thenCompose(current -> {
+            Map<String, List<Delete>> staleIndexes = new HashMap<>();
+            for (SecondaryIndex index : indexes) {
+                byte[] oldValue = index.valueOf(row, current);
+                if (oldValue != null) {
+                    staleIndexes.put(index.getIndexTableName(),
+                            Collections.singletonList(index.indexDelete(oldValue, row)));
+                }
+            }
+            return ops.table(tableName).delete(new Delete(key))
+                    .whenComplete((v, t) -> invalidate(tableName, row))
+                    .thenCompose(v -> applyIndexDeletesAsync(ops, tableName, row, staleIndexes));
+        }));
     }
 
     // dropTable：删除整张表（用于环境还原）
     public static void dropTable(String tableName) throws IOException {
-        init();
         TableName tName = TableName.valueOf(tableName);
-        if (admin.tableExists(tName)) {
-            admin.disableTable(tName);
-            admin.deleteTable(tName);
-            MY_LOGGER.info("表 {} 已删除", tableName);
-        } else {
-            MY_LOGGER.info("表 {} 不存在，无需删除", tableName);
+        try (Admin admin = client().admin()) {
+            if (admin.tableExists(tName)) {
+                dropIndexTables(admin, tName);
+                admin.disableTable(tName);
+                admin.deleteTable(tName);
+                MY_LOGGER.info("表 {} 已删除", tableName);
+            } else {
+                MY_LOGGER.info("表 {} 不存在，无需删除", tableName);
+            }
+        } finally {
+            SALTERS.remove(tableName);
+            INDEXES.remove(tableName);
+            invalidateTable(tableName);
+        }
+    }
+
+    // 演示用：导出结果只通过日志输出前几行，不直接写到标准输出
+    private static void logSample(ByteArrayOutputStream exported, long cells) {
+        String[] lines = new String(exported.toByteArray(), StandardCharsets.UTF_8).split("\n");
+        int shown = Math.min(EXPORT_SAMPLE_LINES, lines.length);
+        MY_LOGGER.info("共导出 {} 个单元格，前 {} 行：", cells, shown);
+        for (int i = 0; i < shown; i++) {
+            MY_LOGGER.info("  {}", lines[i]);
         }
-        close();
     }
 
     // 主函数：依次测试题目中的五个功能，同时加入用户输入逻辑，测试表已存在的情形
@@ -216,24 +946,60 @@ public class MyHBase {
         addRecord("SC", "2015002_123003", new String[]{"info:SC_Score"}, new String[]{"88"});
         addRecord("SC", "2015003_123002", new String[]{"info:SC_Score"}, new String[]{"90"});
         addRecord("SC", "2015003_123003", new String[]{"info:SC_Score"}, new String[]{"95"});
+        // 异步插入一名学生后读回
+        addRecordAsync("Student", "2015004", new String[]{"info:S_Name", "info:S_Sex", "info:S_Age"},
+                new String[]{"Wangwu", "male", "21"}).join();
+        showCell(getRecordAsync("Student", "2015004").join());
         MY_LOGGER.info("检查：示例数据插入完成");
 
         // (3) 浏览数据：扫描 Student 表中 info 列族
         MY_LOGGER.info("=== (3) 浏览 [Student] 表中所有数据（列族 'info'） ===");
         scanColumn("Student", "info");
+        MY_LOGGER.info("检查：以 TSV 格式导出 [SC] 表（只显示前几行）");
+        ByteArrayOutputStream exported = new ByteArrayOutputStream();
+        long cells = exportData("SC", ScanQuery.create(), exported, CellWriter.Format.TSV);
+        logSample(exported, cells);
+        MY_LOGGER.info("检查：查询 [SC] 表中学号 2015003 成绩大于 90 的选课记录（服务端过滤）");
+        query("SC", ScanQuery.create().rowPrefix("2015003_").column("info:SC_Score")
+                .where("info:SC_Score", CompareOperator.GREATER, "90"));
+
+        MY_LOGGER.info("检查：批量读取 [Student] 表中 3 个学号的姓名（2015009 不存在）");
+        getRecords("Student", Arrays.asList("2015003", "2015009", "2015001"), "info:S_Name");
+
+        MY_LOGGER.info("检查：建立二级索引，按课程号查找选课记录、按姓名查找学生");
+        createIndex("SC", "rowkey:1");
+        createIndex("Student", "info:S_Name");
+        findByIndex("SC", "rowkey:1", "123003");
+        findByIndex("Student", "info:S_Name", "Lisi");
+
+        MY_LOGGER.info("检查：启用行缓存，重复读取同一学生（第二次命中缓存）");
+        enableCache(RowCache.DEFAULT_MAX_BYTES, RowCache.DEFAULT_TTL_MS);
+        getRecord("Student", "2015001");
+        getRecord("Student", "2015001");
+        MY_LOGGER.info("行缓存：{}", getCache());
 
         // (4) 修改数据：修改 Student 表中 2015001 的 info:S_Age 为 25
         MY_LOGGER.info("=== (4) 修改 [Student] 表中行 '2015001' 的 info:S_Age 修改为 25 ===");
         modifyData("Student", "2015001", "info:S_Age", "25");
         MY_LOGGER.info("检查：修改后扫描 Student 表中 'info:S_Age' 的数据");
         scanColumn("Student", "info:S_Age");
+        MY_LOGGER.info("检查：修改后行缓存已失效，重新读取得到新值");
+        getRecord("Student", "2015001");
+        modifyData("Student", "2015003", "info:S_Name", "Lisi2");
+        MY_LOGGER.info("检查：姓名修改后通过索引查找旧姓名和新姓名");
+        findByIndex("Student", "info:S_Name", "Lisi");
+        findByIndex("Student", "info:S_Name", "Lisi2");
 
         // (5) 删除数据：删除 Student 表中行 '2015002'
         MY_LOGGER.info("=== (5) 删除 [Student] 表中行 '2015002' 的记录 ===");
         deleteRow("Student", "2015002");
+        MY_LOGGER.info("检查：删除后通过索引查找 Mary");
+        findByIndex("Student", "info:S_Name", "Mary");
         MY_LOGGER.info("检查：删除后扫描 Student 表中整个 'info' 列族的数据");
         scanColumn("Student", "info");
 
+        MY_LOGGER.info("行缓存：{}", getCache());
+
         // 测试完成后，删除所有插入的表，以还原测试环境
         MY_LOGGER.info("测试完成，删除所有表：[Student], [Course], [SC]");
         dropTable("Student");
@@ -242,5 +1008,6 @@ public class MyHBase {
         MY_LOGGER.info("环境还原完毕，程序结束");
 
         scanner.close();
+        close();
     }
 }
\ No newline at end of file
@@ -0,0 +1,495 @@
+/**
+ * MyHBase 性能对比小工具（非 JMH，直接 main 运行，避免给实验工程引入额外依赖）。
+ *
+ * 连接 HBaseConfiguration.create() 指向的集群（默认 ZooKeeper 为 localhost:2181，
+ * 可以是伪分布式集群，也可以是 HBaseTestingUtility 启动的 mini-cluster），
+ * 测试表以 MyHBaseBench 为前缀，测试结束后删除。
+ * 用法：
+ *   java -Drows=100000 -Dcolumns=10 -cp build/libs/MyHBase.jar MyHBaseBenchmark ingest
+ *   java -Drows=200000 -Dbuckets=16 -Dthreads=4 -cp build/libs/MyHBase.jar MyHBaseBenchmark salt
+ *   java -Drows=100000 -Dkeys=500 -Dregions=8 -cp build/libs/MyHBase.jar MyHBaseBenchmark multiget
+ *   java -Drows=10000 -Dops=50000 -DcacheBytes=1048576 -cp build/libs/MyHBase.jar MyHBaseBenchmark cache
+ *   java -Drows=10000000 -Dregions=8 -cp build/libs/MyHBase.jar MyHBaseBenchmark bulkload
+ */
+
+import org.apache.hadoop.hbase.HColumnDescriptor;
+import org.apache.hadoop.hbase.HTableDescriptor;
+import org.apache.hadoop.hbase.RegionMetrics;
+import org.apache.hadoop.hbase.ServerName;
+import org.apache.hadoop.hbase.Size;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Admin;
+import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.RegionLocator;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.Table;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.config.Configurator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class MyHBaseBenchmark {
+
+    private static final Logger MY_LOGGER = LoggerFactory.getLogger("my.own.logger");
+
+    private static final String TABLE_PREFIX = "MyHBaseBench";
+    private static final byte[] FAMILY = Bytes.toBytes("info");
+
+    public static void main(String[] args) throws Exception {
+        Configurator.setAllLevels("org.apache.hadoop", Level.ERROR);
+        Configurator.setAllLevels("org.apache.zookeeper", Level.ERROR);
+        Configurator.setAllLevels("org.apache.hadoop.hbase", Level.ERROR);
+        Configurator.setAllLevels("my.own.logger", Level.INFO);
+
+        String scenario = args.length > 0 ? args[0] : "ingest";
+        try (HBaseClient client = new HBaseClient(HBaseClient.defaultConfiguration())) {
+            switch (scenario) {
+                case "ingest":
+                    benchIngest(client, Integer.getInteger("rows", 100000), Integer.getInteger("columns", 10));
+                    break;
+                case "salt":
+                    benchSalt(client, Integer.getInteger("rows", 200000), Integer.getInteger("buckets", 16),
+                            Integer.getInteger("threads", 4));
+                    break;
+                case "multiget":
+                    benchMultiGet(client, Integer.getInteger("rows", 100000), Integer.getInteger("keys", 500),
+                            Integer.getInteger("regions", 8));
+                    break;
+                case "cache":
+                    benchCache(client, Integer.getInteger("rows", 10000), Integer.getInteger("ops", 50000),
+                            Long.getLong("cacheBytes", 1024 * 1024));
+                    break;
+                case "bulkload":
+                    benchBulkLoad(client, Integer.getInteger("rows", 10000000), Integer.getInteger("regions", 8));
+                    break;
+                default:
+                    MY_LOGGER.info("未知的测试场景: {}", scenario);
+            }
+        }
+    }
+
+    /**
+     * 对比逐字段 put、整行一个 Put、BufferedMutator 以及 CSV 导入的写入吞吐量（行/秒）
+     */
+    private static void benchIngest(HBaseClient client, int rows, int columns) throws IOException {
+        String[] fields = new String[columns];
+        for (int c = 0; c < columns; c++) {
+            fields[c] = "info:C" + c;
+        }
+        String tableName = TABLE_PREFIX + "Ingest";
+
+        // 逐字段 put 每行需要 columns 次 RPC，只跑一小部分行
+        int slowRows = Math.max(100, rows / 50);
+        createTable(client, tableName, FAMILY);
+        try {
+            long start = System.nanoTime();
+            try (Table table = client.table(tableName)) {
+                for (int r = 0; r < slowRows; r++) {
+                    String[] values = rowValues(r, columns);
+                    for (int c = 0; c < columns; c++) {
+                        Put put = new Put(Bytes.toBytes(rowKey(r)));
+                        put.addColumn(FAMILY, Bytes.toBytes("C" + c), Bytes.toBytes(values[c]));
+                        table.put(put);
+                    }
+                }
+            }
+            reportRows("逐字段 table.put (原 addRecord)", slowRows, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            try (Table table = client.table(tableName)) {
+                for (int r = 0; r < slowRows; r++) {
+                    table.put(HBaseBulkWriter.toPut(rowKey(r), fields, rowValues(r, columns)));
+                }
+            }
+            reportRows("整行一个 Put + table.put", slowRows, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            long failed;
+            try (HBaseBulkWriter writer = new HBaseBulkWriter(client, tableName)) {
+                for (int r = 0; r < rows; r++) {
+                    writer.addRecord(rowKey(r), fields, rowValues(r, columns));
+                }
+                writer.flush();
+                failed = writer.getFailed();
+            }
+            reportRows("BufferedMutator", rows, System.nanoTime() - start);
+            if (failed > 0) {
+                MY_LOGGER.warn("BufferedMutator 写入失败 {} 行", failed);
+            }
+        } finally {
+            dropTable(client, tableName);
+        }
+
+        Path csv = Files.createTempFile("myhbase-bench-", ".csv");
+        createTable(client, tableName, FAMILY);
+        try {
+            try (BufferedWriter out = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+                out.write("row," + String.join(",", fields));
+                out.newLine();
+                for (int r = 0; r < rows; r++) {
+                    out.write(rowKey(r) + "," + String.join(",", rowValues(r, columns)));
+                    out.newLine();
+                }
+            }
+            HBaseCsvLoader.Result result = HBaseCsvLoader.load(client, tableName, csv);
+            reportRows("HBaseCsvLoader", result.getRows(), (long) (result.getSeconds() * 1e9));
+        } finally {
+            Files.deleteIfExists(csv);
+            dropTable(client, tableName);
+        }
+    }
+
+    /**
+     * 递增学号写入：不加盐单 Region、不加盐按键范围预分区、加盐预分区三种表的写入吞吐量，
+     * 以及每 1000 次连续写入平均落在几个 Region 上（1 表示写热点集中在一个 Region）
+     */
+    private static void benchSalt(HBaseClient client, int rows, int buckets, int threads) throws Exception {
+        String[] fields = {"info:S_Name", "info:S_Sex", "info:S_Age"};
+        String[] explicitPoints = new String[buckets - 1];
+        for (int b = 1; b < buckets; b++) {
+            explicitPoints[b - 1] = studentId((int) ((long) rows * b / buckets));
+        }
+        RowKeySalter salter = new RowKeySalter(buckets);
+        Object[][] cases = {
+                {"不加盐, 不预分区", SplitStrategy.none(), null},
+                {"不加盐, 按学号范围预分区", SplitStrategy.explicit(explicitPoints), null},
+                {"加盐, 每桶一个 Region", SplitStrategy.salted(salter), salter},
+        };
+        String tableName = TABLE_PREFIX + "Salt";
+        for (Object[] c : cases) {
+            SplitStrategy split = (SplitStrategy) c[1];
+            RowKeySalter caseSalter = (RowKeySalter) c[2];
+            createTable(client, tableName, split.getSplitKeys(), FAMILY);
+            try {
+                double regionsPerWindow = regionsPerWindow(client, tableName, rows, caseSalter, 1000);
+                ExecutorService pool = Executors.newFixedThreadPool(threads);
+                long start = System.nanoTime();
+                try (HBaseBulkWriter writer = new HBaseBulkWriter(client, tableName)) {
+                    List<Future<?>> futures = new ArrayList<>();
+                    int chunk = (rows + threads - 1) / threads;
+                    for (int t = 0; t < threads; t++) {
+                        int from = t * chunk;
+                        int to = Math.min(rows, from + chunk);
+                        futures.add(pool.submit(() -> {
+                            for (int r = from; r < to; r++) {
+                                byte[] key = Bytes.toBytes(studentId(r));
+                                writer.add(HBaseBulkWriter.toPut(caseSalter == null ? key : caseSalter.salt(key),
+                                        fields, new String[]{"name" + r, r % 2 == 0 ? "male" : "female", "20"}));
+                            }
+                            return null;
+                        }));
+                    }
+                    for (Future<?> future : futures) {
+                        future.get();
+                    }
+                    writer.flush();
+                } finally {
+                    pool.shutdown();
+                }
+                double seconds = (System.nanoTime() - start) / 1e9;
+                MY_LOGGER.info(String.format("%-16s Region=%-3d rows=%-8d %7.2f s  %10.0f 行/秒  每千次写入涉及 %.1f 个 Region",
+                        c[0], split.getRegions(), rows, seconds, rows / seconds, regionsPerWindow));
+            } finally {
+                dropTable(client, tableName);
+            }
+        }
+    }
+
+    /**
+     * 随机取 keys 个学号：逐行 get、一次 Table.get(List<Get>)、MultiGet（按 Region 分组并行）三种方式的耗时
+     */
+    private static void benchMultiGet(HBaseClient client, int rows, int keys, int regions) throws IOException {
+        String[] fields = {"info:S_Name", "info:S_Sex", "info:S_Age"};
+        String[] points = new String[regions - 1];
+        for (int r = 1; r < regions; r++) {
+            points[r - 1] = studentId((int) ((long) rows * r / regions));
+        }
+        String tableName = TABLE_PREFIX + "MultiGet";
+        createTable(client, tableName, SplitStrategy.explicit(points).getSplitKeys(), FAMILY);
+        try {
+            try (HBaseBulkWriter writer = new HBaseBulkWriter(client, tableName)) {
+                for (int r = 0; r < rows; r++) {
+                    writer.addRecord(studentId(r), fields, new String[]{"name" + r, r % 2 == 0 ? "male" : "female", "20"});
+                }
+            }
+            // 约 1/10 的学号不存在
+            Random random = new Random(42);
+            List<String> ids = new ArrayList<>(keys);
+            for (int k = 0; k < keys; k++) {
+                ids.add(studentId(random.nextInt(rows + rows / 10)));
+            }
+            int rounds = 20;
+            for (int round = 0; round < 2; round++) {
+                // 第一轮为预热，只输出第二轮
+                boolean report = round == 1;
+
+                long start = System.nanoTime();
+                long found = 0;
+                for (int i = 0; i < rounds; i++) {
+                    try (Table table = client.table(tableName)) {
+                        for (String id : ids) {
+                            found += table.get(new Get(Bytes.toBytes(id)).addColumn(FAMILY, Bytes.toBytes("S_Name"))).isEmpty() ? 0 : 1;
+                        }
+                    }
+                }
+                reportLookup(report, "逐行 table.get", keys, found / rounds, System.nanoTime() - start, rounds);
+
+                start = System.nanoTime();
+                found = 0;
+                for (int i = 0; i < rounds; i++) {
+                    List<Get> gets = new ArrayList<>(keys);
+                    for (String id : ids) {
+                        gets.add(new Get(Bytes.toBytes(id)).addColumn(FAMILY, Bytes.toBytes("S_Name")));
+                    }
+                    try (Table table = client.table(tableName)) {
+                        for (Result result : table.get(gets)) {
+                            found += result.isEmpty() ? 0 : 1;
+                        }
+                    }
+                }
+                reportLookup(report, "Table.get(List<Get>)", keys, found / rounds, System.nanoTime() - start, rounds);
+
+                MultiGet multiGet = new MultiGet(client);
+                start = System.nanoTime();
+                found = 0;
+                for (int i = 0; i < rounds; i++) {
+                    for (MultiGet.Entry entry : multiGet.get(tableName, ids, "info:S_Name")) {
+                        found += entry.isFound() ? 1 : 0;
+                    }
+                }
+                reportLookup(report, "MultiGet", keys, found / rounds, System.nanoTime() - start, rounds);
+            }
+        } finally {
+            dropTable(client, tableName);
+        }
+    }
+
+    /**
+     * 按 Zipf 分布（少数学号被频繁读取）逐行读取 ops 次：直接 table.get 与经过 RowCache 的吞吐量、命中率和延迟
+     */
+    private static void benchCache(HBaseClient client, int rows, int ops, long cacheBytes) throws IOException {
+        String[] fields = {"info:S_Name", "info:S_Sex", "info:S_Age"};
+        String tableName = TABLE_PREFIX + "Cache";
+        createTable(client, tableName, FAMILY);
+        try {
+            try (HBaseBulkWriter writer = new HBaseBulkWriter(client, tableName)) {
+                for (int r = 0; r < rows; r++) {
+                    writer.addRecord(studentId(r), fields, new String[]{"name" + r, r % 2 == 0 ? "male" : "female", "20"});
+                }
+            }
+            // Zipf(s=1) 的累积分布，按随机数二分查找得到学号
+            double[] cdf = new double[rows];
+            double sum = 0;
+            for (int r = 0; r < rows; r++) {
+                sum += 1.0 / (r + 1);
+                cdf[r] = sum;
+            }
+            Random random = new Random(42);
+            List<String> ids = new ArrayList<>(ops);
+            for (int i = 0; i < ops; i++) {
+                int r = Arrays.binarySearch(cdf, random.nextDouble() * sum);
+                ids.add(studentId(r < 0 ? -r - 1 : r));
+            }
+
+            try (Table table = client.table(tableName)) {
+                long start = System.nanoTime();
+                long found = 0;
+                for (String id : ids) {
+                    found += table.get(new Get(Bytes.toBytes(id))).isEmpty() ? 0 : 1;
+                }
+                reportRows("逐行 table.get（命中 " + found + "）", ops, System.nanoTime() - start);
+
+                RowCache cache = new RowCache(cacheBytes, RowCache.DEFAULT_TTL_MS);
+                start = System.nanoTime();
+                found = 0;
+                for (String id : ids) {
+                    found += cache.getAll(tableName, Collections.singletonList(id),
+                            missing -> Collections.singletonList(table.get(new Get(Bytes.toBytes(missing.get(0))))))
+                            .get(0).isEmpty() ? 0 : 1;
+                }
+                reportRows("RowCache（命中 " + found + "）", ops, System.nanoTime() - start);
+                MY_LOGGER.info("RowCache {}", cache);
+            }
+        } finally {
+            dropTable(client, tableName);
+        }
+    }
+
+    /**
+     * 同一个乱序的学生 CSV 分别用 HBaseCsvLoader（逐行 Put）和 HBaseBulkLoader（生成 HFile）导入预分区的表，
+     * 对比导入耗时以及导入后的 Region 状态（StoreFile 数、MemStore 大小）
+     */
+    private static void benchBulkLoad(HBaseClient client, int rows, int regions) throws IOException {
+        String[] points = new String[regions - 1];
+        for (int r = 1; r < regions; r++) {
+            points[r - 1] = studentId((int) ((long) rows * r / regions));
+        }
+        byte[][] splits = SplitStrategy.explicit(points).getSplitKeys();
+        Path csv = Files.createTempFile("myhbase-bench-", ".csv");
+        try {
+            // 按 r * 步长 取模的顺序写出，行键在文件中是乱序的
+            long step = 7919;
+            while (gcd(step, rows) != 1) {
+                step++;
+            }
+            try (BufferedWriter out = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+                out.write("S_No,info:S_Name,info:S_Sex,info:S_Age");
+                out.newLine();
+                for (long i = 0; i < rows; i++) {
+                    int r = (int) (i * step % rows);
+                    out.write(studentId(r) + ",name" + r + "," + (r % 2 == 0 ? "male" : "female") + "," + (18 + r % 10));
+                    out.newLine();
+                }
+            }
+            MY_LOGGER.info("CSV {} 行，{} MB", rows, Files.size(csv) / (1024 * 1024));
+
+            String tableName = TABLE_PREFIX + "PutLoad";
+            createTable(client, tableName, splits, FAMILY);
+            try {
+                HBaseCsvLoader.Result result = HBaseCsvLoader.load(client, tableName, csv);
+                reportRows("HBaseCsvLoader（逐行 Put）", result.getRows(), (long) (result.getSeconds() * 1e9));
+                reportRegions(client, tableName);
+            } finally {
+                dropTable(client, tableName);
+            }
+
+            tableName = TABLE_PREFIX + "BulkLoad";
+            createTable(client, tableName, splits, FAMILY);
+            try {
+                HBaseBulkLoader.Result result = HBaseBulkLoader.load(client, tableName, csv);
+                reportRows("HBaseBulkLoader（HFile）", result.getRows(), (long) (result.getSeconds() * 1e9));
+                MY_LOGGER.info(String.format("  其中生成 HFile %.2f s，导入 %.2f s",
+                        result.getGenerateSeconds(), result.getLoadSeconds()));
+                reportRegions(client, tableName);
+            } finally {
+                dropTable(client, tableName);
+            }
+        } finally {
+            Files.deleteIfExists(csv);
+        }
+    }
+
+    // 直接向 RegionServer 查询表的各 Region 当前的 StoreFile 数与 MemStore、StoreFile 大小
+    private static void reportRegions(HBaseClient client, String tableName) throws IOException {
+        TableName tn = TableName.valueOf(tableName);
+        int regionCount = 0;
+        int storeFiles = 0;
+        double memStoreMb = 0;
+        double storeFileMb = 0;
+        try (Admin admin = client.admin()) {
+            for (ServerName server : admin.getRegionServers()) {
+                for (RegionMetrics metrics : admin.getRegionMetrics(server, tn)) {
+                    regionCount++;
+                    storeFiles += metrics.getStoreFileCount();
+                    memStoreMb += metrics.getMemStoreSize().get(Size.Unit.MEGABYTE);
+                    storeFileMb += metrics.getStoreFileSize().get(Size.Unit.MEGABYTE);
+                }
+            }
+            MY_LOGGER.info(String.format("  Region %d 个，StoreFile %d 个（%.1f MB），MemStore %.1f MB，合并状态 %s",
+                    regionCount, storeFiles, storeFileMb, memStoreMb, admin.getCompactionState(tn)));
+        }
+    }
+
+    private static long gcd(long a, long b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+
+    private static void reportLookup(boolean report, String label, int keys, long found, long nanos, int rounds) {
+        if (report) {
+            MY_LOGGER.info(String.format("%-22s keys=%-5d 命中 %-5d 每批 %8.2f ms", label, keys, found, nanos / 1e6 / rounds));
+        }
+    }
+
+    // 按写入顺序每 window 个行键为一组，统计平均每组落在多少个不同的 Region
+    private static double regionsPerWindow(HBaseClient client, String tableName, int rows,
+                                           RowKeySalter salter, int window) throws IOException {
+        long total = 0;
+        int windows = 0;
+        try (RegionLocator locator = client.getConnection().getRegionLocator(TableName.valueOf(tableName))) {
+            for (int start = 0; start < rows; start += window) {
+                Set<String> regions = new HashSet<>();
+                for (int r = start; r < Math.min(rows, start + window); r++) {
+                    byte[] key = Bytes.toBytes(studentId(r));
+                    regions.add(locator.getRegionLocation(salter == null ? key : salter.salt(key))
+                            .getRegion().getEncodedName());
+                }
+                total += regions.size();
+                windows++;
+            }
+        }
+        return (double) total / windows;
+    }
+
+    // 递增的学号形式行键
+    private static String studentId(int i) {
+        return String.valueOf(2015000000L + i);
+    }
+
+    private static String rowKey(int i) {
+        return String.format("%08d", i);
+    }
+
+    private static String[] rowValues(int r, int columns) {
+        String[] values = new String[columns];
+        for (int c = 0; c < columns; c++) {
+            values[c] = "value-" + r + "-" + c;
+        }
+        return values;
+    }
+
+    private static void reportRows(String label, long rows, long nanos) {
+        double seconds = nanos / 1e9;
+        MY_LOGGER.info(String.format("%-32s rows=%-8d %8.2f s  %10.0f 行/秒", label, rows, seconds, rows / seconds));
+    }
+
+    private static void createTable(HBaseClient client, String tableName, byte[]... families) throws IOException {
+        createTable(client, tableName, null, families);
+    }
+
+    private static void createTable(HBaseClient client, String tableName, byte[][] splits, byte[]... families) throws IOException {
+        try (Admin admin = client.admin()) {
+            TableName tn = TableName.valueOf(tableName);
+            if (admin.tableExists(tn)) {
+                admin.disableTable(tn);
+                admin.deleteTable(tn);
+            }
+            HTableDescriptor descriptor = new HTableDescriptor(tn);
+            for (byte[] family : families) {
+                descriptor.addFamily(new HColumnDescriptor(family));
+            }
+            if (splits == null || splits.length == 0) {
+                admin.createTable(descriptor);
+            } else {
+                admin.createTable(descriptor, splits);
+            }
+        }
+    }
+
+    private static void dropTable(HBaseClient client, String tableName) throws IOException {
+        try (Admin admin = client.admin()) {
+            TableName tn = TableName.valueOf(tableName);
+            if (admin.tableExists(tn)) {
+                admin.disableTable(tn);
+                admin.deleteTable(tn);
+            }
+        }
+    }
+}
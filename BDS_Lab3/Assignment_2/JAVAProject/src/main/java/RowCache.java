@@ -0,0 +1,362 @@
+/**
+ * 客户端的读穿透（read-through）行缓存。
+ *
+ * Student、Course 这类表的读取高度集中在少数热点行上，但每次 getRecord 都要一次 RegionServer RPC。
+ * RowCache 按 (表名, 原始行键) 缓存整行的 Result：命中时直接返回，未命中时调用加载函数从 HBase 读取后放入缓存，
+ * 不存在的行也会缓存（空 Result），避免反复查询不存在的学号。
+ *
+ * 容量按字节限制（myhbase.cache.max.bytes，按单元格各字段长度估算），超出时淘汰最久未访问的行（LRU）；
+ * 每行在放入 myhbase.cache.ttl.ms 毫秒后过期，用来兜底其他客户端的写入。
+ * 通过同一 MyHBase 进程的写入（addRecord、modifyData、deleteRow 等）在写入结束后（无论成功与否，
+ * 失败的写入也可能已经生效）调用 invalidate 使对应行失效。
+ * 每个正在加载的行记录一个加载标记，失效时撤销该行的标记，加载完成时标记已被撤销的结果不放入缓存，
+ * 避免把写入之前读到的旧值重新缓存；其他行的加载不受影响。
+ *
+ * 统计：按行计算的命中率、淘汰数、过期数，以及命中和未命中调用的平均耗时
+ * （一次调用的所有行都命中时计入命中耗时，否则计入未命中耗时）。
+ * 线程安全。
+ */
+
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+public class RowCache {
+
+    public static final String ENABLED_KEY = "myhbase.cache.enabled";
+    public static final String MAX_BYTES_KEY = "myhbase.cache.max.bytes";
+    public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+    public static final String TTL_KEY = "myhbase.cache.ttl.ms";
+    public static final long DEFAULT_TTL_MS = 60 * 1000;
+
+    // 估算内存占用时每行、每个单元格的固定开销（对象头、引用、时间戳等）
+    private static final int ROW_OVERHEAD = 128;
+    private static final int CELL_OVERHEAD = 64;
+
+    /**
+     * 批量读取未命中的行，返回结果与 rows 一一对应、顺序相同，行不存在时为空的 Result
+     */
+    public interface Loader {
+        List<Result> load(List<String> rows) throws IOException;
+    }
+
+    private static class Node {
+        final Result result;
+        final long bytes;
+        final long expiresAt;
+
+        Node(Result result, long bytes, long expiresAt) {
+            this.result = result;
+            this.bytes = bytes;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final long maxBytes;
+    private final long ttlNanos;
+    // 按访问顺序排列，最久未访问的在最前
+    private final LinkedHashMap<String, Node> rows = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+    // 正在加载的行及其加载标记；失效时移除，加载完成时标记仍在才放入缓存
+    private final Map<String, Object> loading = new HashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder hitCalls = new LongAdder();
+    private final LongAdder hitNanos = new LongAdder();
+    private final LongAdder missCalls = new LongAdder();
+    private final LongAdder missNanos = new LongAdder();
+
+    public RowCache(long maxBytes, long ttlMs) {
+        if (maxBytes <= 0 || ttlMs <= 0) {
+            throw new IllegalArgumentException("缓存容量和过期时间必须大于 0: " + maxBytes + ", " + ttlMs);
+        }
+        this.maxBytes = maxBytes;
+        this.ttlNanos = ttlMs * 1000000L;
+    }
+
+    /**
+     * 读取表 tableName 中的多行，返回结果与 rows 顺序一致；未命中的行一次性交给 loader 读取
+     */
+    public List<Result> getAll(String tableName, List<String> rows, Loader loader) throws IOException {
+        long start = System.nanoTime();
+        Result[] results = new Result[rows.size()];
+        List<String> missing = new ArrayList<>();
+        List<Integer> missingAt = new ArrayList<>();
+        List<String> keys = new ArrayList<>();
+        Object token = new Object();
+        synchronized (this) {
+            for (int i = 0; i < rows.size(); i++) {
+                String key = key(tableName, rows.get(i));
+                results[i] = lookup(key, start);
+                if (results[i] == null) {
+                    missing.add(rows.get(i));
+                    missingAt.add(i);
+                    keys.add(key);
+                    loading.put(key, token);
+                }
+            }
+        }
+        hits.add(rows.size() - missing.size());
+        misses.add(missing.size());
+        if (missing.isEmpty()) {
+            recordHit(start);
+            return Collections.unmodifiableList(Arrays.asList(results));
+        }
+
+        List<Result> loaded;
+        try {
+            loaded = loader.load(missing);
+        } catch (IOException | RuntimeException e) {
+            synchronized (this) {
+                for (String key : keys) {
+                    loading.remove(key, token);
+                }
+            }
+            throw e;
+        }
+        long now = System.nanoTime();
+        synchronized (this) {
+            for (int i = 0; i < missing.size(); i++) {
+                results[missingAt.get(i)] = loaded.get(i);
+                if (loading.remove(keys.get(i), token)) {
+                    store(keys.get(i), loaded.get(i), now);
+                }
+            }
+        }
+        recordMiss(start);
+        return Collections.unmodifiableList(Arrays.asList(results));
+    }
+
+    /**
+     * 异步读取一行：命中时返回已完成的 future，否则调用 loader 发起异步读取，完成后放入缓存
+     */
+    public CompletableFuture<Result> getAsync(String tableName, String row, Supplier<CompletableFuture<Result>> loader) {
+        long start = System.nanoTime();
+        String key = key(tableName, row);
+        Result cached;
+        Object token = new Object();
+        synchronized (this) {
+            cached = lookup(key, start);
+            if (cached == null) {
+                loading.put(key, token);
+            }
+        }
+        if (cached != null) {
+            hits.increment();
+            recordHit(start);
+            return CompletableFuture.completedFuture(cached);
+        }
+        misses.increment();
+        CompletableFuture<Result> future;
+        try {
+            future = loader.get();
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                loading.remove(key, token);
+            }
+            throw e;
+        }
+        return future.whenComplete((result, t) -> {
+            synchronized (this) {
+                if (loading.remove(key, token) && t == null) {
+                    store(key, result, System.nanoTime());
+                }
+            }
+            if (t == null) {
+                recordMiss(start);
+            }
+        });
+    }
+
+    /**
+     * 使表 tableName 中的行 row 失效
+     */
+    public synchronized void invalidate(String tableName, String row) {
+        String key = key(tableName, row);
+        loading.remove(key);
+        remove(key);
+    }
+
+    /**
+     * 使表 tableName 的所有行失效（批量导入、删除或重建表时使用）
+     */
+    public synchronized void invalidateTable(String tableName) {
+        String prefix = tableName + '\0';
+        loading.keySet().removeIf(key -> key.startsWith(prefix));
+        for (Iterator<Map.Entry<String, Node>> it = rows.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<String, Node> entry = it.next();
+            if (entry.getKey().startsWith(prefix)) {
+                bytes -= entry.getValue().bytes;
+                it.remove();
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        loading.clear();
+        rows.clear();
+        bytes = 0;
+    }
+
+    // 在锁内调用：取出未过期的行并更新访问顺序
+    private Result lookup(String key, long now) {
+        Node node = rows.get(key);
+        if (node == null) {
+            return null;
+        }
+        if (now - node.expiresAt >= 0) {
+            remove(key);
+            expirations.increment();
+            return null;
+        }
+        return node.result;
+    }
+
+    // 在锁内调用：放入一行，超出容量时从最久未访问的行开始淘汰
+    private void store(String key, Result result, long now) {
+        long size = sizeOf(key, result);
+        if (size > maxBytes) {
+            return;
+        }
+        remove(key);
+        rows.put(key, new Node(result, size, now + ttlNanos));
+        bytes += size;
+        for (Iterator<Node> it = rows.values().iterator(); bytes > maxBytes && it.hasNext(); ) {
+            bytes -= it.next().bytes;
+            it.remove();
+            evictions.increment();
+        }
+    }
+
+    private void remove(String key) {
+        Node node = rows.remove(key);
+        if (node != null) {
+            bytes -= node.bytes;
+        }
+    }
+
+    private static String key(String tableName, String row) {
+        return tableName + '\0' + row;
+    }
+
+    // 估算一行占用的内存：行键字符串加各单元格的行键、列族、列、值长度
+    private static long sizeOf(String key, Result result) {
+        long size = ROW_OVERHEAD + 2L * key.length();
+        for (Cell cell : result.rawCells()) {
+            size += CELL_OVERHEAD + cell.getRowLength() + cell.getFamilyLength()
+                    + cell.getQualifierLength() + cell.getValueLength();
+        }
+        return size;
+    }
+
+    /**
+     * 只保留 result 中 columns 指定的列（"列族:列" 或 "列族"），columns 为空时原样返回
+     */
+    public static Result project(Result result, String... columns) {
+        if (columns.length == 0 || result.isEmpty()) {
+            return result;
+        }
+        List<Cell> cells = new ArrayList<>();
+        for (Cell cell : result.rawCells()) {
+            for (String column : columns) {
+                int colon = column.indexOf(':');
+                boolean match = colon < 0 ? CellUtil.matchingFamily(cell, Bytes.toBytes(column))
+                        : CellUtil.matchingColumn(cell, Bytes.toBytes(column.substring(0, colon)),
+                        Bytes.toBytes(column.substring(colon + 1)));
+                if (match) {
+                    cells.add(cell);
+                    break;
+                }
+            }
+        }
+        return Result.create(cells);
+    }
+
+    private void recordHit(long start) {
+        hitCalls.increment();
+        hitNanos.add(System.nanoTime() - start);
+    }
+
+    private void recordMiss(long start) {
+        missCalls.increment();
+        missNanos.add(System.nanoTime() - start);
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * 按行计算的命中率，尚无读取时为 0
+     */
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public long getExpirations() {
+        return expirations.sum();
+    }
+
+    /**
+     * 全部命中的调用的平均耗时（微秒）
+     */
+    public double getAverageHitMicros() {
+        long calls = hitCalls.sum();
+        return calls == 0 ? 0 : hitNanos.sum() / 1e3 / calls;
+    }
+
+    /**
+     * 有未命中行的调用的平均耗时（微秒），包括从 HBase 读取的时间
+     */
+    public double getAverageMissMicros() {
+        long calls = missCalls.sum();
+        return calls == 0 ? 0 : missNanos.sum() / 1e3 / calls;
+    }
+
+    public synchronized int getRows() {
+        return rows.size();
+    }
+
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("行数 %d，占用 %d/%d 字节，命中率 %.1f%%（命中 %d，未命中 %d），淘汰 %d，过期 %d，"
+                        + "命中平均 %.1f us，未命中平均 %.1f us",
+                getRows(), getBytes(), maxBytes, getHitRate() * 100, getHits(), getMisses(),
+                getEvictions(), getExpirations(), getAverageHitMicros(), getAverageMissMicros());
+    }
+}
@@ -0,0 +1,80 @@
+/**
+ * 行键加盐。
+ *
+ * 在原始行键前加上 2 位十六进制的桶号：桶号 = hash(原始行键) % 桶数，
+ * 于是递增的学号会被打散到各个桶（配合 SplitStrategy.salted 即各个 Region）中。
+ * 桶号只由原始行键决定，点查（get/put/delete）时重新计算即可定位，
+ * 全表或范围扫描则需要对每个桶各扫一次（scansFor）。
+ * 使用 Arrays.hashCode 计算散列，结果与 JVM 无关，不同进程写入和读取时加盐结果一致。
+ */
+
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class RowKeySalter {
+
+    // 前缀为 2 位十六进制，最后一个桶的扫描上界是下一个桶号，因此最多 255 个桶
+    public static final int MAX_BUCKETS = 255;
+    // 桶前缀的字节数
+    public static final int PREFIX_LENGTH = 2;
+
+    private final int buckets;
+
+    public RowKeySalter(int buckets) {
+        if (buckets < 1 || buckets > MAX_BUCKETS) {
+            throw new IllegalArgumentException("桶数必须在 1 到 " + MAX_BUCKETS + " 之间: " + buckets);
+        }
+        this.buckets = buckets;
+    }
+
+    public int getBuckets() {
+        return buckets;
+    }
+
+    /**
+     * 桶号对应的行键前缀
+     */
+    public byte[] prefix(int bucket) {
+        return Bytes.toBytes(String.format("%02x", bucket));
+    }
+
+    public int bucketOf(byte[] key) {
+        return (Arrays.hashCode(key) & Integer.MAX_VALUE) % buckets;
+    }
+
+    public byte[] salt(byte[] key) {
+        return Bytes.add(prefix(bucketOf(key)), key);
+    }
+
+    public byte[] salt(String key) {
+        return salt(Bytes.toBytes(key));
+    }
+
+    /**
+     * 去掉前缀，还原原始行键
+     */
+    public byte[] unsalt(byte[] saltedKey) {
+        return Arrays.copyOfRange(saltedKey, PREFIX_LENGTH, saltedKey.length);
+    }
+
+    /**
+     * 把原始行键范围 [startRow, stopRow) 转换成每个桶一个的 Scan；startRow / stopRow 为 null 表示不限
+     * @param template 提供列、过滤器、caching 等其余设置的 Scan
+     */
+    public List<Scan> scansFor(Scan template, byte[] startRow, byte[] stopRow) throws IOException {
+        List<Scan> scans = new ArrayList<>(buckets);
+        for (int b = 0; b < buckets; b++) {
+            byte[] prefix = prefix(b);
+            Scan scan = new Scan(template);
+            scan.withStartRow(startRow == null ? prefix : Bytes.add(prefix, startRow));
+            scan.withStopRow(stopRow == null ? prefix(b + 1) : Bytes.add(prefix, stopRow));
+            scans.add(scan);
+        }
+        return scans;
+    }
+}
@@ -0,0 +1,170 @@
+/**
+ * 客户端维护的二级索引。
+ *
+ * 按非行键字段查询（如按姓名找学生、按课程找选课记录）原来只能全表 scanColumn 后在客户端筛选。
+ * 二级索引为每个被索引的字段建一张索引表 <表名>_idx_<列族>.<列>（行键分段索引为 <表名>_idx_rowkey<段号>），
+ * 不同列族中的同名列各用一张索引表。索引表行键为
+ *   被索引的值 + 0x00 + 原始行键
+ * 于是按值查询变成一次索引表前缀扫描，再按得到的行键批量读取原表（MultiGet）。
+ *
+ * 被索引的字段可以是：
+ *   "列族:列"   —— 某一列的值，如 "info:S_Name"；
+ *   "rowkey:n"  —— 行键按 '_' 切分后的第 n 段（从 0 开始），如 SC 表行键 "学号_课程号" 的 "rowkey:1" 即课程号。
+ * 表上的索引记录在表描述符的 MYHBASE_INDEXES 属性中，MyHBase 的写入方法据此自动维护索引。
+ *
+ * HBase 不支持跨表原子写入，因此写入顺序为：先写新的索引项，再写原表，最后删除旧的索引项（删除行时先删原表）。
+ * 任何时刻原表中的值都能通过索引查到；中途失败只会留下多余的索引项，
+ * 查询时按原表的当前值校验并跳过这类过期索引项（查询不删除索引项：与并发的写入交错时，
+ * 一个看似过期的索引项可能正是另一个写入刚写下、原表尚未写入的新索引项），由 rebuildIndex 从原表重建整个索引来清理。
+ * 被索引的值中不能包含 0x00 字节。
+ */
+
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.HColumnDescriptor;
+import org.apache.hadoop.hbase.HTableDescriptor;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Admin;
+import org.apache.hadoop.hbase.client.Delete;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+public class SecondaryIndex {
+
+    // 原表描述符中记录索引字段的属性名，多个字段以逗号分隔
+    public static final String INDEXES_ATTRIBUTE = "MYHBASE_INDEXES";
+    public static final String ROWKEY_PREFIX = "rowkey:";
+
+    static final byte[] FAMILY = Bytes.toBytes("i");
+    static final byte[] QUALIFIER = Bytes.toBytes("r");
+    private static final byte SEPARATOR = 0;
+    private static final String ROWKEY_DELIMITER = "_";
+
+    private final String tableName;
+    private final String column;
+    // 列索引的列族和列；行键分段索引时为 null
+    private final byte[] family;
+    private final byte[] qualifier;
+    // 行键分段索引的段号；列索引时为 -1
+    private final int segment;
+
+    public SecondaryIndex(String tableName, String column) {
+        this.tableName = tableName;
+        this.column = column;
+        if (column.startsWith(ROWKEY_PREFIX)) {
+            this.family = null;
+            this.qualifier = null;
+            this.segment = Integer.parseInt(column.substring(ROWKEY_PREFIX.length()));
+            if (segment < 0) {
+                throw new IllegalArgumentException("行键段号不能为负数: " + column);
+            }
+        } else {
+            int colon = column.indexOf(':');
+            if (colon < 0) {
+                throw new IllegalArgumentException("索引字段格式应为 列族:列 或 rowkey:段号，实际为 " + column);
+            }
+            this.family = Bytes.toBytes(column.substring(0, colon));
+            this.qualifier = Bytes.toBytes(column.substring(colon + 1));
+            this.segment = -1;
+        }
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public String getColumn() {
+        return column;
+    }
+
+    public String getIndexTableName() {
+        return tableName + "_idx_" + (segment >= 0 ? "rowkey" + segment
+                : Bytes.toString(family) + "." + Bytes.toString(qualifier));
+    }
+
+    /**
+     * 是否为列索引（否则为行键分段索引，值不会随 put 改变）
+     */
+    public boolean isColumnIndex() {
+        return family != null;
+    }
+
+    public byte[] getFamily() {
+        return family;
+    }
+
+    public byte[] getQualifier() {
+        return qualifier;
+    }
+
+    /**
+     * 行 row 当前的被索引值；row 为原始行键，current 为原表中该行（至少包含被索引的列），不存在时返回 null
+     */
+    public byte[] valueOf(String row, Result current) {
+        if (current == null || current.isEmpty()) {
+            return null;
+        }
+        return isColumnIndex() ? current.getValue(family, qualifier) : segmentOf(row);
+    }
+
+    /**
+     * 写入 put 之后行 row 的被索引值；put 不包含被索引的列时不变，仍为 old
+     */
+    public byte[] valueAfter(String row, byte[] old, Put put) {
+        if (!isColumnIndex()) {
+            return segmentOf(row);
+        }
+        List<Cell> cells = put.get(family, qualifier);
+        return cells.isEmpty() ? old : CellUtil.cloneValue(cells.get(0));
+    }
+
+    private byte[] segmentOf(String row) {
+        String[] parts = row.split(ROWKEY_DELIMITER, -1);
+        return segment < parts.length ? Bytes.toBytes(parts[segment]) : null;
+    }
+
+    /**
+     * 索引表中 value 对应的行键前缀
+     */
+    public byte[] prefix(byte[] value) {
+        return Bytes.add(value, new byte[]{SEPARATOR});
+    }
+
+    public Put indexPut(byte[] value, String row) {
+        return new Put(Bytes.add(prefix(value), Bytes.toBytes(row))).addColumn(FAMILY, QUALIFIER, new byte[0]);
+    }
+
+    public Delete indexDelete(byte[] value, String row) {
+        return new Delete(Bytes.add(prefix(value), Bytes.toBytes(row)));
+    }
+
+    /**
+     * 由索引表行键取出原始行键
+     */
+    public static String rowOf(byte[] indexKey) {
+        int separator = Bytes.indexOf(indexKey, SEPARATOR);
+        return Bytes.toString(Arrays.copyOfRange(indexKey, separator + 1, indexKey.length));
+    }
+
+    /**
+     * 创建索引表（已存在时保留）
+     */
+    public void createIndexTable(Admin admin) throws IOException {
+        TableName tn = TableName.valueOf(getIndexTableName());
+        if (!admin.tableExists(tn)) {
+            HTableDescriptor descriptor = new HTableDescriptor(tn);
+            descriptor.addFamily(new HColumnDescriptor(FAMILY));
+            admin.createTable(descriptor);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return tableName + "(" + column + ") -> " + getIndexTableName();
+    }
+}
@@ -0,0 +1,86 @@
+/**
+ * 建表时的预分区策略。
+ *
+ * 不预分区时新表只有一个 Region，学号这类递增行键的写入全部落在同一个 RegionServer 上。
+ * 可选策略：
+ *   none()               —— 不预分区（原来的行为）；
+ *   hex(n)               —— 把 8 位十六进制字符串键空间均分为 n 个 Region（适合 MD5 等散列后的十六进制行键）；
+ *   uniform(n)           —— 把任意字节键空间均分为 n 个 Region（适合二进制散列行键）；
+ *   salted(salter)       —— 与 RowKeySalter 的桶前缀对齐，每个盐值桶一个 Region；
+ *   explicit(points...)  —— 直接给出分区点。
+ */
+
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.hbase.util.RegionSplitter;
+
+import java.util.Arrays;
+
+public class SplitStrategy {
+
+    private final String description;
+    private final byte[][] splitKeys;
+
+    private SplitStrategy(String description, byte[][] splitKeys) {
+        this.description = description;
+        this.splitKeys = splitKeys;
+    }
+
+    public static SplitStrategy none() {
+        return new SplitStrategy("none", new byte[0][]);
+    }
+
+    public static SplitStrategy hex(int regions) {
+        checkRegions(regions);
+        return new SplitStrategy("hex(" + regions + ")", new RegionSplitter.HexStringSplit().split(regions));
+    }
+
+    public static SplitStrategy uniform(int regions) {
+        checkRegions(regions);
+        return new SplitStrategy("uniform(" + regions + ")", new RegionSplitter.UniformSplit().split(regions));
+    }
+
+    public static SplitStrategy salted(RowKeySalter salter) {
+        byte[][] keys = new byte[salter.getBuckets() - 1][];
+        for (int b = 1; b < salter.getBuckets(); b++) {
+            keys[b - 1] = salter.prefix(b);
+        }
+        return new SplitStrategy("salted(" + salter.getBuckets() + ")", keys);
+    }
+
+    public static SplitStrategy explicit(String... points) {
+        byte[][] keys = new byte[points.length][];
+        for (int i = 0; i < points.length; i++) {
+            keys[i] = Bytes.toBytes(points[i]);
+        }
+        // createTable 要求分区点有序且不重复
+        Arrays.sort(keys, Bytes.BYTES_COMPARATOR);
+        for (int i = 1; i < keys.length; i++) {
+            if (Bytes.equals(keys[i - 1], keys[i])) {
+                throw new IllegalArgumentException("分区点重复: " + Bytes.toStringBinary(keys[i]));
+            }
+        }
+        return new SplitStrategy("explicit(" + points.length + ")", keys);
+    }
+
+    private static void checkRegions(int regions) {
+        if (regions < 1) {
+            throw new IllegalArgumentException("Region 数必须大于 0: " + regions);
+        }
+    }
+
+    /**
+     * 分区点（Region 数 = 分区点个数 + 1）；不预分区时为空数组
+     */
+    public byte[][] getSplitKeys() {
+        return splitKeys;
+    }
+
+    public int getRegions() {
+        return splitKeys.length + 1;
+    }
+
+    @Override
+    public String toString() {
+        return description;
+    }
+}
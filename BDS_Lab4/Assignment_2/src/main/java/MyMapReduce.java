@@ -5,12 +5,22 @@
 	处理： 每行数据使用 IntWritable 类型进行包装。
 	输出： 输出格式是 <整数, 1>。
  */
+/**
+ * Combine：
+ * 输入： <整数, [1, 1, ...]>（同一个 Map 任务中的重复值）
+   处理： 把重复值合并成出现次数，一个值重复一百万次在 shuffle 中也只是一条记录。
+   输出： <整数, 出现次数>
+ */
 /**
  * Reduce：
- * 输入： <整数, 1>
-   处理： 只关注 key，按顺序输出排序位次。
+ * 输入： <整数, [出现次数, ...]>
+   处理： 只关注 key，按出现次数依次输出排序位次。
    输出： <排序位次, 数字本身>
  */
+/**
+ * 排序：key 用 IntWritable.Comparator 直接比较序列化后的 4 个字节，不反序列化成对象。
+ * Map、Combine、Reduce 中输出的 IntWritable 都是复用的同一个对象（context.write 时即被序列化）。
+ */
 import java.io.File;
 import java.io.IOException;
 
@@ -30,29 +40,49 @@ public class MyMapReduce {
     // Map 类：负责读取输入文件的每一行
     // 每一行代表一个整数，作为 key 输出，value 固定为 1（用于计数）
     public static class Map extends Mapper<Object, Text, IntWritable, IntWritable> {
-        private static final IntWritable data = new IntWritable();
+        private static final IntWritable ONE = new IntWritable(1);
+        private final IntWritable data = new IntWritable();
 
         @Override
         public void map(Object key, Text value, Context context) throws IOException, InterruptedException {
-            // 将读取到的一行文本转为整数
-            String line = value.toString();
-            data.set(Integer.parseInt(line));
+            // 直接从 Text 的字节解析整数，不再为每一行创建 String；空行跳过
+            if (isBlank(value)) {
+                return;
+            }
+            data.set(parseInt(value));
             // 输出格式为 <整数, 1>，value 为 1 表示出现一次
-            context.write(data, new IntWritable(1));
+            context.write(data, ONE);
+        }
+    }
+
+    // Combine 类：在 Map 端把同一个整数的多条记录合并成 <整数, 出现次数>
+    public static class Combine extends Reducer<IntWritable, IntWritable, IntWritable, IntWritable> {
+        private final IntWritable count = new IntWritable();
+
+        @Override
+        public void reduce(IntWritable key, Iterable<IntWritable> values, Context context) throws IOException, InterruptedException {
+            int sum = 0;
+            for (IntWritable val : values) {
+                sum += val.get();
+            }
+            count.set(sum);
+            context.write(key, count);
         }
     }
 
     // Reduce 类：对 Map 阶段输出的 key（整数）排序后，计算它们的排序位次
     public static class Reduce extends Reducer<IntWritable, IntWritable, IntWritable, IntWritable> {
-        private int lineNum = 1; // 行号，从 1 开始，表示排序位次
+        private final IntWritable lineNum = new IntWritable(1); // 行号，从 1 开始，表示排序位次
 
         @Override
         public void reduce(IntWritable key, Iterable<IntWritable> values, Context context) throws IOException, InterruptedException {
-            // 每个 key 可能有多个 value（代表出现多次）
+            // 每个 value 是该整数的出现次数（经过 Combine 合并，或未合并时为 1）
             for (IntWritable val : values) {
-                // 输出格式为：<排序位次, 数字本身>
-                context.write(new IntWritable(lineNum), key);
-                lineNum++;
+                for (int i = 0; i < val.get(); i++) {
+                    // 输出格式为：<排序位次, 数字本身>
+                    context.write(lineNum, key);
+                    lineNum.set(lineNum.get() + 1);
+                }
             }
         }
     }
@@ -75,28 +105,86 @@ public class MyMapReduce {
         }
     }
 
-    public static void main(String[] args) throws Exception {
-        // 创建配置对象
-        Configuration conf = new Configuration();
+    // 判断一行是否全为空白字符
+    static boolean isBlank(Text value) {
+        byte[] bytes = value.getBytes();
+        for (int i = 0; i < value.getLength(); i++) {
+            if (bytes[i] > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
 
-        // 设置 Hadoop 运行模式为 local，本地调试用（无需启动集群）
-        conf.set("mapreduce.framework.name", "local");
+    // 从 Text 的 UTF-8 字节解析一个十进制整数，允许前后空白（包括 Windows 换行留下的 \r）和正负号
+    static int parseInt(Text value) {
+        byte[] bytes = value.getBytes();
+        int end = value.getLength();
+        int i = 0;
+        while (i < end && bytes[i] <= ' ') {
+            i++;
+        }
+        while (end > i && bytes[end - 1] <= ' ') {
+            end--;
+        }
+        boolean negative = false;
+        if (i < end && (bytes[i] == '-' || bytes[i] == '+')) {
+            negative = bytes[i] == '-';
+            i++;
+        }
+        if (i == end) {
+            throw new NumberFormatException("不是整数: \"" + value + "\"");
+        }
+        long limit = negative ? -(long) Integer.MIN_VALUE : Integer.MAX_VALUE;
+        long result = 0;
+        for (; i < end; i++) {
+            int digit = bytes[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException("不是整数: \"" + value + "\"");
+            }
+            result = result * 10 + digit;
+            if (result > limit) {
+                throw new NumberFormatException("超出 int 范围: \"" + value + "\"");
+            }
+        }
+        return (int) (negative ? -result : result);
+    }
 
+    // 创建排序作业：combine 为 false 时不设置 Combine（用于性能对比）
+    public static Job createJob(Configuration conf, String inputPath, String outputPath, boolean combine) throws IOException {
         // 创建 Job 实例
         Job job = Job.getInstance(conf, "Merge and Sort");
 
         // 设置主类（用于打包 jar 时指明入口）
         job.setJarByClass(MyMapReduce.class);
 
-        // 指定 Map、Reduce、Partition 类
+        // 指定 Map、Combine、Reduce、Partition 类
         job.setMapperClass(Map.class);
+        if (combine) {
+            job.setCombinerClass(Combine.class);
+        }
         job.setReducerClass(Reduce.class);
         job.setPartitionerClass(Partition.class);
+        // 按序列化后的字节比较 key
+        job.setSortComparatorClass(IntWritable.Comparator.class);
 
         // 指定输出键值类型（中间输出和最终输出一致）
         job.setOutputKeyClass(IntWritable.class);
         job.setOutputValueClass(IntWritable.class);
 
+        // 设置输入输出路径
+        FileInputFormat.addInputPath(job, new Path(inputPath));
+        FileOutputFormat.setOutputPath(job, new Path(outputPath));
+        return job;
+    }
+
+    public static void main(String[] args) throws Exception {
+        // 创建配置对象
+        Configuration conf = new Configuration();
+
+        // 设置 Hadoop 运行模式为 local，本地调试用（无需启动集群）
+        conf.set("mapreduce.framework.name", "local");
+
         // 输入输出路径（默认设置在项目根目录的 input/ 和 output/ 目录）
         String inputPath = "input";
         String outputPath = "output";
@@ -108,9 +196,7 @@ public class MyMapReduce {
             System.out.println("output 目录存在，将其删除 ");
         }
 
-        // 设置输入输出路径
-        FileInputFormat.addInputPath(job, new Path(inputPath));
-        FileOutputFormat.setOutputPath(job, new Path(outputPath));
+        Job job = createJob(conf, inputPath, outputPath, true);
 
         boolean success = job.waitForCompletion(true);  // 等待任务完成
         if (success) {
@@ -122,7 +208,7 @@ public class MyMapReduce {
     }
 
     // 删除目录及其所有内容的递归函数
-    private static void deleteDirectory(File dir) {
+    static void deleteDirectory(File dir) {
         File[] files = dir.listFiles();
         if (files != null) {
             for (File file : files) {
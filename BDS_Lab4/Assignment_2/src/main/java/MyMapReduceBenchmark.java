@@ -0,0 +1,143 @@
+/**
+ * Merge and Sort 作业的性能测试（非 JMH，直接 main 运行）。
+ *
+ * 生成 count 个 [0, 65223) 内的随机整数（默认 1 亿个，上限与 Partition 的假设一致），分成 files 个输入文件，
+ * 以本地模式运行 MyMapReduce 的排序作业，输出 map、shuffle、reduce 各阶段耗时以及 shuffle 的记录数和字节数。
+ * 阶段耗时由 Map / Reduce 的子类在 setup、cleanup 中记录时间戳得到（本地模式下所有任务都在同一个 JVM 中）：
+ *   map     —— 第一个 Map 任务开始到最后一个 Map 任务的 map 函数全部结束；
+ *   shuffle —— 此后到 Reduce 任务开始，包括 Map 端最后一次排序溢写与合并（及 Combine）、拷贝和 Reduce 端合并；
+ *   reduce  —— Reduce 任务的 setup 到 cleanup。
+ * 输入和输出写在 dir 目录（默认系统临时目录）下新建的 mymapreduce-bench-* 子目录中，结束后只删除该子目录。
+ *
+ * 用法：
+ *   java -Dcount=100000000 -Dfiles=8 -cp build/libs/MyMapReduce.jar MyMapReduceBenchmark [both|combine|nocombine]
+ */
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.mapreduce.Counters;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.TaskCounter;
+
+public class MyMapReduceBenchmark {
+
+    private static final int MAX_VALUE = 65223;
+
+    // 各阶段的时间戳（纳秒）
+    private static final AtomicLong mapStart = new AtomicLong();
+    private static final AtomicLong mapEnd = new AtomicLong();
+    private static final AtomicLong reduceStart = new AtomicLong();
+    private static final AtomicLong reduceEnd = new AtomicLong();
+
+    // 记录 Map 任务开始和 map 函数结束的时间
+    public static class TimedMap extends MyMapReduce.Map {
+        @Override
+        protected void setup(Context context) {
+            mapStart.accumulateAndGet(System.nanoTime(), Math::min);
+        }
+
+        @Override
+        protected void cleanup(Context context) {
+            mapEnd.accumulateAndGet(System.nanoTime(), Math::max);
+        }
+    }
+
+    // 记录 Reduce 任务开始和结束的时间
+    public static class TimedReduce extends MyMapReduce.Reduce {
+        @Override
+        protected void setup(Context context) {
+            reduceStart.accumulateAndGet(System.nanoTime(), Math::min);
+        }
+
+        @Override
+        protected void cleanup(Context context) {
+            reduceEnd.accumulateAndGet(System.nanoTime(), Math::max);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        long count = Long.getLong("count", 100000000L);
+        int files = Integer.getInteger("files", 8);
+        String mode = args.length > 0 ? args[0] : "both";
+        // dir 可能是调用方已有的目录，只在其中新建本次运行的子目录
+        File base = new File(System.getProperty("dir", System.getProperty("java.io.tmpdir")));
+        Files.createDirectories(base.toPath());
+        File dir = Files.createTempDirectory(base.toPath(), "mymapreduce-bench-").toFile();
+        File input = new File(dir, "input");
+
+        try {
+            generate(input, count, files);
+            if (!"nocombine".equals(mode)) {
+                run(input, new File(dir, "output-combine"), true, count);
+            }
+            if (!"combine".equals(mode)) {
+                run(input, new File(dir, "output-nocombine"), false, count);
+            }
+        } finally {
+            MyMapReduce.deleteDirectory(dir);
+        }
+    }
+
+    // 生成 count 个随机整数，每行一个，均匀分到 files 个文件
+    private static void generate(File input, long count, int files) throws IOException {
+        MyMapReduce.deleteDirectory(input);
+        Files.createDirectories(input.toPath());
+        long start = System.nanoTime();
+        Random random = new Random(42);
+        long bytes = 0;
+        for (int f = 0; f < files; f++) {
+            long lines = count / files + (f < count % files ? 1 : 0);
+            File file = new File(input, "input" + (f + 1) + ".txt");
+            try (BufferedWriter out = Files.newBufferedWriter(file.toPath(), StandardCharsets.US_ASCII)) {
+                for (long i = 0; i < lines; i++) {
+                    out.write(Integer.toString(random.nextInt(MAX_VALUE)));
+                    out.newLine();
+                }
+            }
+            bytes += file.length();
+        }
+        System.out.printf("生成 %d 个整数，%d 个文件，共 %d MB，耗时 %.1f s%n",
+                count, files, bytes / (1024 * 1024), (System.nanoTime() - start) / 1e9);
+    }
+
+    private static void run(File input, File output, boolean combine, long count) throws Exception {
+        MyMapReduce.deleteDirectory(output);
+        mapStart.set(Long.MAX_VALUE);
+        mapEnd.set(0);
+        reduceStart.set(Long.MAX_VALUE);
+        reduceEnd.set(0);
+
+        Configuration conf = new Configuration();
+        conf.set("mapreduce.framework.name", "local");
+        Job job = MyMapReduce.createJob(conf, input.getPath(), output.getPath(), combine);
+        job.setMapperClass(TimedMap.class);
+        job.setReducerClass(TimedReduce.class);
+
+        long start = System.nanoTime();
+        if (!job.waitForCompletion(false)) {
+            throw new IOException("作业执行失败: " + job.getStatus().getFailureInfo());
+        }
+        long total = System.nanoTime() - start;
+
+        Counters counters = job.getCounters();
+        long outputRecords = counters.findCounter(TaskCounter.REDUCE_OUTPUT_RECORDS).getValue();
+        System.out.printf("%s：总耗时 %.1f s（map %.1f s，shuffle %.1f s，reduce %.1f s）%n",
+                combine ? "带 Combine" : "不带 Combine", total / 1e9,
+                (mapEnd.get() - mapStart.get()) / 1e9, (reduceStart.get() - mapEnd.get()) / 1e9,
+                (reduceEnd.get() - reduceStart.get()) / 1e9);
+        System.out.printf("  Map 输出 %d 条，Combine 输出 %d 条，Reduce 输入 %d 条，shuffle %d MB，溢写 %d 条，输出 %d 行%s%n",
+                counters.findCounter(TaskCounter.MAP_OUTPUT_RECORDS).getValue(),
+                counters.findCounter(TaskCounter.COMBINE_OUTPUT_RECORDS).getValue(),
+                counters.findCounter(TaskCounter.REDUCE_INPUT_RECORDS).getValue(),
+                counters.findCounter(TaskCounter.REDUCE_SHUFFLE_BYTES).getValue() / (1024 * 1024),
+                counters.findCounter(TaskCounter.SPILLED_RECORDS).getValue(),
+                outputRecords, outputRecords == count ? "" : "（应为 " + count + " 行）");
+        MyMapReduce.deleteDirectory(output);
+    }
+}